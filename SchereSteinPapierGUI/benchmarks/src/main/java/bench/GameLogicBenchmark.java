@@ -0,0 +1,44 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Eine Runde auflösen: App.spiele (inkl. Zufallszug), die reine Tabelle und
+ * die aus rules/rps101.rules geladene 101 x 101-Tabelle.
+ */
+@State(Scope.Thread)
+public class GameLogicBenchmark {
+    private Object stein;
+    private int player;
+    private int computer;
+    private Object rps101;
+
+    @Setup
+    public void setup() {
+        stein = Targets.weapon("stein");
+        rps101 = Targets.rules("rps101");
+    }
+
+    @Benchmark
+    public Object spiele() throws Throwable {
+        return Targets.SPIELE.invoke(stein);
+    }
+
+    @Benchmark
+    public byte resolveCodes() throws Throwable {
+        // wechselnde Eingaben, damit der JIT das Ergebnis nicht konstant faltet
+        player = (player + 1) % 3;
+        computer = (computer + 2) % 3;
+        return (byte) Targets.RESOLVE_CODES.invoke(player, computer);
+    }
+
+    @Benchmark
+    public byte resolveRps101() throws Throwable {
+        player = (player + 1) % 101;
+        computer = (computer + 37) % 101;
+        return (byte) Targets.RULES_RESOLVE.invoke(rps101, player, computer);
+    }
+}
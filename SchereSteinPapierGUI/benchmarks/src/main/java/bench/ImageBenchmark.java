@@ -0,0 +1,23 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * App.loadImage: Treffer im Icon-Cache gegenüber Dekodieren des fertig
+ * skalierten Icons aus dem Bildbündel nach dem Verwerfen des Caches.
+ */
+@State(Scope.Thread)
+public class ImageBenchmark {
+    @Benchmark
+    public Object loadImageCached() throws Throwable {
+        return Targets.LOAD_IMAGE.invoke("stein");
+    }
+
+    @Benchmark
+    public Object loadImageRescale() throws Throwable {
+        Targets.ICON_CACHE_INVALIDATE.invoke(Targets.iconCache());
+        return Targets.LOAD_IMAGE.invoke("stein");
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import javax.swing.JPanel;
+
+/**
+ * Regressionstest für den allokationsfreien Zeichenpfad des EmojiPanel
+ * (TextSprite, vorab angelegte Farben, Fonts und Strokes).
+ *
+ * Zeichnet das Panel offscreen in den Zuständen gewonnen, verloren und
+ * unentschieden, dazu eine Runde mit Waffen ohne Bild (Beschriftung statt
+ * Icon, Satz rpsls), und misst mit den Allokationszählern des ThreadMXBean, wie
+ * viele Bytes ein Bild im eingeschwungenen Zustand kostet. Vergleichsmaß ist
+ * ein leeres JPanel gleicher Größe: dessen Bytes (je nach JDK 600 bis 900,
+ * Swings eigene Graphics-Kopien) darf das EmojiPanel um höchstens
+ * {@value #BUDGET_BYTES} Byte pro Bild überschreiten. Ohne Jubel, denn
+ * Partikel misst {@link PaintBenchmark}.
+ *
+ * Läuft bei {@code mvn verify} im Modul mit, von Hand:
+ * {@code java -Djava.awt.headless=true -cp target/benchmarks.jar bench.PaintAllocationCheck}.
+ * Beendet sich mit Status 1, wenn ein Zustand das Budget reißt.
+ */
+public final class PaintAllocationCheck {
+    static final int BUDGET_BYTES = 64;
+    private static final int WARMUP_FRAMES = 20_000; // bis der JIT den Pfad übersetzt hat
+    private static final int FRAMES = 5_000;
+
+    private PaintAllocationCheck() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported())
+            throw new IllegalStateException("JVM zählt keine Allokationen pro Thread");
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        BufferedImage canvas = new BufferedImage(ParticleBenchmark.WIDTH, ParticleBenchmark.HEIGHT,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = canvas.createGraphics();
+        try {
+            JPanel empty = new JPanel();
+            empty.setSize(ParticleBenchmark.WIDTH, ParticleBenchmark.HEIGHT);
+            double baseline = bytesPerFrame(mx, empty, g2);
+            System.out.printf("leeres JPanel: %.0f Byte/Bild, Budget +%d%n", baseline, BUDGET_BYTES);
+
+            boolean ok = true;
+            ok &= check(mx, g2, baseline, "WIN", "stein", "schere");
+            ok &= check(mx, g2, baseline, "LOSE", "schere", "stein");
+            ok &= check(mx, g2, baseline, "DRAW", "papier", "papier");
+            Object rpsls = Targets.rules("rpsls");
+            Targets.setStatic(Targets.APP, "rules", rpsls); // Knopfgröße wie im Spiel mit fünf Waffen
+            ok &= check(mx, g2, baseline, "WIN", Targets.weapon(rpsls, "echse"), Targets.weapon(rpsls, "spock"));
+            if (!ok) {
+                System.out.println("FEHLER: EmojiPanel.paintComponent allokiert wieder pro Bild");
+                System.exit(1);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private static boolean check(com.sun.management.ThreadMXBean mx, Graphics2D g2, double baseline,
+            String outcome, String player, String computer) throws Throwable {
+        return check(mx, g2, baseline, outcome, Targets.weapon(player), Targets.weapon(computer));
+    }
+
+    private static boolean check(com.sun.management.ThreadMXBean mx, Graphics2D g2, double baseline,
+            String outcome, Object player, Object computer) throws Throwable {
+        JPanel panel = (JPanel) Targets.EMOJI_PANEL_NEW.invoke();
+        panel.setSize(ParticleBenchmark.WIDTH, ParticleBenchmark.HEIGHT);
+        Targets.set(panel, "showResult", true);
+        Targets.set(panel, "status", Targets.outcome(outcome));
+        Targets.set(panel, "playerChoice", player);
+        Targets.set(panel, "computerChoice", computer);
+        double perFrame = bytesPerFrame(mx, panel, g2);
+        boolean ok = perFrame <= baseline + BUDGET_BYTES;
+        System.out.printf("EmojiPanel %-4s %s/%s: %.0f Byte/Bild (%+.0f) %s%n", outcome, player, computer, perFrame,
+                perFrame - baseline, ok ? "ok" : "ZU VIEL");
+        return ok;
+    }
+
+    private static double bytesPerFrame(com.sun.management.ThreadMXBean mx, JPanel panel, Graphics2D g2) {
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            panel.paint(g2);
+        long thread = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < FRAMES; i++)
+            panel.paint(g2);
+        return (double) (mx.getThreadAllocatedBytes(thread) - before) / FRAMES;
+    }
+}
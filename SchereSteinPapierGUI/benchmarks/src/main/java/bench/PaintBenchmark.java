@@ -0,0 +1,57 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Komplettes EmojiPanel.paintComponent im Ergebnis-Zustand "gewonnen" mit
+ * laufendem Jubel, offscreen in ein BufferedImage gerendert.
+ */
+@State(Scope.Thread)
+public class PaintBenchmark {
+    @Param({ "500", "1200" })
+    public int particles;
+
+    private JPanel panel;
+    private BufferedImage canvas;
+    private Graphics2D g2;
+
+    @Setup(Level.Iteration)
+    public void setup() throws Throwable {
+        panel = (JPanel) Targets.EMOJI_PANEL_NEW.invoke();
+        panel.setSize(ParticleBenchmark.WIDTH, ParticleBenchmark.HEIGHT);
+        Targets.set(panel, "showResult", true);
+        Targets.set(panel, "status", Targets.outcome("WIN"));
+        Targets.set(panel, "playerChoice", Targets.weapon("stein"));
+        Targets.set(panel, "computerChoice", Targets.weapon("schere"));
+        // Partikel in die Simulation legen und als Schnappschuss veröffentlichen
+        Object simulation = Targets.EMOJI_PANEL_SIMULATION.invoke(panel); // wird erst bei Bedarf angelegt
+        ParticleBenchmark.fill(Targets.get(simulation, "live"), particles);
+        Targets.SIMULATION_PUBLISH.invoke(simulation);
+        Targets.SIMULATION_LATEST.invoke(simulation); // paintComponent zeichnet den aktuellen Schnappschuss
+
+        canvas = new BufferedImage(ParticleBenchmark.WIDTH, ParticleBenchmark.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g2 = canvas.createGraphics();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        panel.paint(g2);
+        return canvas;
+    }
+}
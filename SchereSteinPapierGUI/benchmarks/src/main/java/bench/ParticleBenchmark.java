@@ -0,0 +1,93 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Partikel-Physik und Zeichnen (ersetzen Confetti.update/draw und
+ * Firework.explode aus der alten Objekt-Variante).
+ */
+@State(Scope.Thread)
+public class ParticleBenchmark {
+    static final int WIDTH = 1280;
+    static final int HEIGHT = 800;
+
+    @Param({ "500", "1200" })
+    public int particles;
+
+    private Object system;
+    private BufferedImage canvas;
+    private Graphics2D g2;
+
+    @Setup(Level.Iteration)
+    public void setup() throws Throwable {
+        system = Targets.PARTICLES_NEW.invoke();
+        fill(system, particles);
+        canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g2 = canvas.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    /** Verteilt Konfetti wie startCelebration, mit sehr langer Lebensdauer. */
+    static void fill(Object system, int count) throws Throwable {
+        for (int i = 0; i < count; i++) {
+            double x = (i * 37) % WIDTH;
+            double y = (i * 53) % (HEIGHT * 0.6);
+            int size = 20 + (i % 30);
+            Targets.PARTICLES_SPAWN_CONFETTI.invoke(system, x, y, Integer.MAX_VALUE / 2, size, 60.0, 40.0);
+        }
+    }
+
+    @Benchmark
+    public Object update() throws Throwable {
+        Targets.PARTICLES_UPDATE.invoke(system);
+        return system;
+    }
+
+    @Benchmark
+    public BufferedImage draw() throws Throwable {
+        Targets.PARTICLES_DRAW.invoke(system, g2, 0.5f);
+        return canvas;
+    }
+
+    /**
+     * Ein Partikelsystem für explode, einmal angelegt (rund 250 KB Arrays).
+     * Vor jedem Aufruf geleert und mit einer Rakete bestückt, damit nur die
+     * Explosion gemessen wird und nicht das Anlegen der Arrays.
+     */
+    @State(Scope.Thread)
+    public static class Fireworks {
+        Object system;
+
+        @Setup(Level.Trial)
+        public void create() throws Throwable {
+            system = Targets.PARTICLES_NEW.invoke();
+        }
+
+        @Setup(Level.Invocation)
+        public void launchRocket() throws Throwable {
+            Targets.PARTICLES_CLEAR.invoke(system);
+            Targets.PARTICLES_SPAWN_ROCKET.invoke(system, 400.0, 600.0);
+        }
+    }
+
+    @Benchmark
+    public Object explode(Fireworks fireworks) throws Throwable {
+        Targets.PARTICLES_EXPLODE.invoke(fireworks.system, 0);
+        return fireworks.system;
+    }
+}
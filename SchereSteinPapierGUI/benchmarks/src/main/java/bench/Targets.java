@@ -0,0 +1,173 @@
+package bench;
+
+import java.awt.Graphics2D;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Zugriff auf die Spielklassen im Default-Package.
+ *
+ * JMH verlangt Benchmarks in einem benannten Package, aus dem heraus Klassen
+ * des Default-Packages nicht direkt referenziert werden können. Deshalb werden
+ * die Ziele einmal per Reflection aufgelöst und als static final MethodHandles
+ * abgelegt, die der JIT wie direkte Aufrufe inlinen kann.
+ */
+final class Targets {
+    static final Class<?> APP = type("App");
+    static final Class<?> RULE_SET = type("RuleSet");
+    static final Class<?> WEAPON = type("RuleSet$Weapon");
+    static final Class<?> PARTICLE_SYSTEM = type("ParticleSystem");
+    static final Class<?> EMOJI_PANEL = type("App$EmojiPanel");
+    static final Class<?> OUTCOME = type("RoundEngine$Outcome");
+
+    static final MethodHandle SPIELE = method(APP, "spiele", WEAPON);
+    static final MethodHandle RESOLVE_CODES = method(type("RoundEngine"), "resolve", int.class, int.class);
+    static final MethodHandle RULES_RESOLVE = method(RULE_SET, "resolve", int.class, int.class);
+    static final MethodHandle LOAD_IMAGE = method(APP, "loadImage", String.class);
+    static final MethodHandle ICON_CACHE_INVALIDATE = method(type("App$IconCache"), "invalidate");
+
+    static final MethodHandle PARTICLES_NEW = constructor(PARTICLE_SYSTEM);
+    static final MethodHandle PARTICLES_SPAWN_CONFETTI = method(PARTICLE_SYSTEM, "spawnConfetti", double.class,
+            double.class, int.class, int.class, double.class, double.class);
+    static final MethodHandle PARTICLES_SPAWN_ROCKET = method(PARTICLE_SYSTEM, "spawnRocket", double.class,
+            double.class);
+    static final MethodHandle PARTICLES_EXPLODE = method(PARTICLE_SYSTEM, "explode", int.class);
+    static final MethodHandle PARTICLES_UPDATE = method(PARTICLE_SYSTEM, "update");
+    static final MethodHandle PARTICLES_DRAW = method(PARTICLE_SYSTEM, "draw", Graphics2D.class, float.class);
+    static final MethodHandle PARTICLES_CLEAR = method(PARTICLE_SYSTEM, "clear");
+
+    static final MethodHandle SIMULATION_PUBLISH = method(type("ParticleSimulation"), "publish");
+    static final MethodHandle SIMULATION_LATEST = method(type("ParticleSimulation"), "latest");
+
+    static final MethodHandle EMOJI_PANEL_NEW = constructor(EMOJI_PANEL);
+    static final MethodHandle EMOJI_PANEL_SIMULATION = method(EMOJI_PANEL, "simulation");
+
+    private Targets() {
+    }
+
+    /** Waffe des klassischen Satzes, z.B. "stein". */
+    static Object weapon(String id) {
+        return weapon(classicRules(), id);
+    }
+
+    /** Waffe eines beliebigen Satzes, z.B. "spock" aus rules("rpsls"). */
+    static Object weapon(Object rules, String id) {
+        try {
+            return method(RULE_SET, "byId", String.class).invoke(rules, id);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static Object classicRules() {
+        return invokeStatic(RULE_SET, "classic");
+    }
+
+    /** Eingebauter Satz oder Datei, wie -Dssp.rules. */
+    static Object rules(String name) {
+        return invokeStatic(RULE_SET, "load", name);
+    }
+
+    static Object outcome(String name) {
+        return enumConstant(OUTCOME, name);
+    }
+
+    static Object iconCache() {
+        return getStatic(APP, "iconCache");
+    }
+
+    static Object get(Object target, String name) {
+        try {
+            return field(target.getClass(), name).get(target);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static void set(Object target, String name, Object value) {
+        try {
+            field(target.getClass(), name).set(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static void setStatic(Class<?> owner, String name, Object value) {
+        try {
+            field(owner, name).set(null, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object getStatic(Class<?> owner, String name) {
+        try {
+            return field(owner, name).get(null);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object invokeStatic(Class<?> owner, String name, Object... args) {
+        Class<?>[] params = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++)
+            params[i] = args[i].getClass();
+        try {
+            return method(owner, name, params).invokeWithArguments(args);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object enumConstant(Class<?> enumType, String name) {
+        for (Object constant : enumType.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name))
+                return constant;
+        }
+        throw new IllegalArgumentException(enumType.getName() + "." + name);
+    }
+
+    private static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Spielklasse nicht gefunden: " + name, ex);
+        }
+    }
+
+    private static Field field(Class<?> owner, String name) {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            try {
+                Field f = c.getDeclaredField(name);
+                f.setAccessible(true);
+                return f;
+            } catch (NoSuchFieldException ex) {
+                // in der Oberklasse weitersuchen
+            }
+        }
+        throw new IllegalStateException("Feld nicht gefunden: " + owner.getName() + "." + name);
+    }
+
+    private static MethodHandle method(Class<?> owner, String name, Class<?>... params) {
+        try {
+            Method m = owner.getDeclaredMethod(name, params);
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Methode nicht gefunden: " + owner.getName() + "." + name, ex);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> owner) {
+        try {
+            Constructor<?> c = owner.getDeclaredConstructor();
+            c.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(c);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Konstruktor nicht gefunden: " + owner.getName(), ex);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lastgenerator für das Raum-Protokoll von web/app.js: spielt viele Räume
+ * mit je zwei Clients gleichzeitig gegen scripts/signaling-server.js oder
+ * den Java-Spielserver in server/.
+ *
+ * Jedes Paar verbindet sich wie zwei Browser-Tabs: der Gastgeber schickt
+ * {@code create}, der Gast {@code join} mit dem Raumcode, danach setzen
+ * beide im festen Takt {@code move}. Gemessen werden zwei Latenzen als
+ * Perzentil-Histogramme ({@link LatencyHistogram}):
+ * <ul>
+ * <li>create→joined: vom Senden von {@code create} bis der Gast
+ * {@code joined} bekommt,</li>
+ * <li>move→Gegnerzug: vom geplanten Takt einer Runde bis ein Client den
+ * {@code move} des Gegners bekommt (beim Relay sofort, beim Spielserver
+ * erst, wenn beide gesetzt haben).</li>
+ * </ul>
+ * Gemessen wird ab dem geplanten Takt, nicht ab dem tatsächlichen Senden,
+ * damit ein überlasteter Generator die Latenzen nicht schönrechnet. Ist eine
+ * Runde beim nächsten Takt noch offen, fällt der Takt aus und wird gezählt.
+ *
+ * Züge und Taktversatz kommen aus einem Seed, ein Lauf mit denselben
+ * Optionen schickt also dieselbe Last. Start:
+ * {@code java LoadGenerator [--url=ws://localhost:8080] [--rooms=500]
+ * [--rate=1] [--duration=60] [--ramp=10] [--seed=1] [--result=datei.json]}
+ * (rate = Runden pro Sekunde und Raum, Zeiten in Sekunden).
+ */
+final class LoadGenerator {
+    private static final long PROGRESS_INTERVAL_MS = 5000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI url;
+    private final int roomCount;
+    private final double rate;
+    private final long durationMs;
+    private final long rampMs;
+    private final long seed;
+
+    // je HttpClient ein Selector-Thread; mehrere, damit nicht ein Thread alle Clients liest
+    private final HttpClient[] http = new HttpClient[Math.max(1, Runtime.getRuntime().availableProcessors() / 2)];
+    private final ScheduledExecutorService ticker = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread t = new Thread(r, "load-ticker");
+                t.setDaemon(true);
+                return t;
+            });
+
+    final LatencyHistogram joinLatency = new LatencyHistogram();
+    final LatencyHistogram moveLatency = new LatencyHistogram();
+    final AtomicInteger playing = new AtomicInteger(); // Räume mit zwei Spielern
+    final AtomicLong rounds = new AtomicLong(); // abgeschlossene Runden
+    final AtomicLong results = new AtomicLong(); // result-Nachrichten (nur Spielserver)
+    final AtomicLong skippedTicks = new AtomicLong();
+    final AtomicLong errors = new AtomicLong(); // error-Nachrichten vom Server
+    final AtomicLong failures = new AtomicLong(); // Verbindungsabbrüche und -fehler
+
+    private volatile boolean stopping = false;
+
+    LoadGenerator(URI url, int roomCount, double rate, long durationMs, long rampMs, long seed) {
+        this.url = url;
+        this.roomCount = roomCount;
+        this.rate = rate;
+        this.durationMs = durationMs;
+        this.rampMs = rampMs;
+        this.seed = seed;
+        for (int i = 0; i < http.length; i++)
+            http[i] = HttpClient.newHttpClient();
+    }
+
+    /** Führt den Lauf aus und gibt am Ende die Auswertung aus. */
+    void run() throws InterruptedException {
+        long periodNanos = (long) (1e9 / rate);
+        SplittableRandom master = new SplittableRandom(seed);
+        List<Pair> pairs = new ArrayList<>(roomCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < roomCount; i++) {
+            Pair pair = new Pair(i, master.split(), periodNanos);
+            pairs.add(pair);
+            long delayMs = roomCount > 1 ? rampMs * i / (roomCount - 1) : 0;
+            ticker.schedule(pair::connect, delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        long end = start + TimeUnit.MILLISECONDS.toNanos(rampMs + durationMs);
+        long lastRounds = 0;
+        long lastProgress = start;
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(PROGRESS_INTERVAL_MS, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 1));
+            long now = System.nanoTime();
+            long done = rounds.get();
+            System.out.printf("%5.0fs  Räume=%d/%d  Runden/s=%.0f  ausgefallen=%d  Fehler=%d  move p99=%.2f ms%n",
+                    (now - start) / 1e9, playing.get(), roomCount, (done - lastRounds) * 1e9 / (now - lastProgress),
+                    skippedTicks.get(), errors.get() + failures.get(), moveLatency.percentileMillis(99));
+            lastRounds = done;
+            lastProgress = now;
+        }
+
+        stopping = true;
+        ticker.shutdownNow();
+        for (Pair pair : pairs)
+            pair.close();
+        System.out.println();
+        System.out.println("create→joined:  " + joinLatency.summary());
+        System.out.println("move→Gegnerzug: " + moveLatency.summary());
+        System.out.printf("Räume %d/%d, Runden %d, result %d, ausgefallene Takte %d, Fehler %d, Abbrüche %d%n",
+                playing.get(), roomCount, rounds.get(), results.get(), skippedTicks.get(), errors.get(),
+                failures.get());
+    }
+
+    /** Ergebnis als flaches JSON-Objekt, Latenzen in Mikrosekunden. */
+    String resultJson() {
+        Json.Builder out = Json.object().put("url", url.toString()).put("rooms", roomCount)
+                .put("roundsPerSecondPerRoom", rate).put("durationSeconds", durationMs / 1000)
+                .put("seed", seed).put("playing", playing.get()).put("rounds", rounds.get())
+                .put("results", results.get()).put("skippedTicks", skippedTicks.get())
+                .put("errors", errors.get()).put("failures", failures.get());
+        percentiles(out, "join", joinLatency);
+        percentiles(out, "move", moveLatency);
+        return out.toString();
+    }
+
+    private static void percentiles(Json.Builder out, String name, LatencyHistogram h) {
+        out.put(name + "Count", h.count())
+                .put(name + "MeanMicros", Math.round(h.meanMillis() * 1000))
+                .put(name + "P50Micros", Math.round(h.percentileMillis(50) * 1000))
+                .put(name + "P90Micros", Math.round(h.percentileMillis(90) * 1000))
+                .put(name + "P99Micros", Math.round(h.percentileMillis(99) * 1000))
+                .put(name + "P999Micros", Math.round(h.percentileMillis(99.9) * 1000))
+                .put(name + "MaxMicros", Math.round(h.maxMillis() * 1000));
+    }
+
+    /**
+     * Ein Raum: Gastgeber und Gast. Die Runde läuft, solange pending > 0;
+     * jeder Client zählt es herunter, wenn der Zug des Gegners ankommt.
+     */
+    private final class Pair {
+        final int index;
+        final SplittableRandom random; // nur vom Ticker-Thread benutzt
+        final long periodNanos;
+        final Client host = new Client(this, true);
+        final Client guest = new Client(this, false);
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger ready = new AtomicInteger(); // joined + peer-joined
+        volatile String room;
+        volatile long createSentAt;
+        volatile long roundStart;
+        long nextTick; // geplanter Takt, nur vom Ticker-Thread benutzt
+
+        Pair(int index, SplittableRandom random, long periodNanos) {
+            this.index = index;
+            this.random = random;
+            this.periodNanos = periodNanos;
+        }
+
+        void connect() {
+            host.connect().thenCompose(h -> guest.connect()).whenComplete((ws, ex) -> {
+                if (ex != null) {
+                    failures.incrementAndGet();
+                    return;
+                }
+                createSentAt = System.nanoTime();
+                host.send(Json.object().put("type", "create").toString());
+            });
+        }
+
+        // Gastgeber hat den Raumcode
+        void created(String code) {
+            room = code;
+            guest.send(Json.object().put("type", "join").put("room", code).toString());
+        }
+
+        // joined beim Gast oder peer-joined beim Gastgeber
+        void seated(boolean isGuest) {
+            if (isGuest)
+                joinLatency.recordNanos(System.nanoTime() - createSentAt);
+            if (ready.incrementAndGet() != 2 || stopping)
+                return;
+            playing.incrementAndGet();
+            nextTick = System.nanoTime() + (long) (random.nextDouble() * periodNanos); // Räume nicht im Gleichschritt
+            ticker.scheduleAtFixedRate(this::tick, nextTick - System.nanoTime(), periodNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void tick() {
+            long planned = nextTick;
+            nextTick += periodNanos;
+            if (stopping)
+                return;
+            if (!pending.compareAndSet(0, 2)) {
+                skippedTicks.incrementAndGet();
+                return;
+            }
+            roundStart = planned;
+            host.send(moveMessage(Move.values()[random.nextInt(Move.COUNT)]));
+            guest.send(moveMessage(Move.values()[random.nextInt(Move.COUNT)]));
+        }
+
+        private String moveMessage(Move move) {
+            return Json.object().put("type", "move").put("room", room).put("move", move.wire).toString();
+        }
+
+        // Zug des Gegners angekommen
+        void opponentMoved() {
+            moveLatency.recordNanos(System.nanoTime() - roundStart);
+            if (pending.decrementAndGet() == 0)
+                rounds.incrementAndGet();
+        }
+
+        void close() {
+            host.close();
+            guest.close();
+        }
+    }
+
+    /** Ein simulierter Browser-Client mit eigener WebSocket-Verbindung. */
+    private final class Client implements WebSocket.Listener {
+        final Pair pair;
+        final boolean isHost;
+        private final StringBuilder partial = new StringBuilder();
+        private volatile WebSocket socket;
+        // sendText darf erst nach Abschluss des vorigen Sendens wieder aufgerufen werden
+        private CompletableFuture<WebSocket> lastSend;
+
+        Client(Pair pair, boolean isHost) {
+            this.pair = pair;
+            this.isHost = isHost;
+        }
+
+        CompletableFuture<WebSocket> connect() {
+            return http[pair.index % http.length].newWebSocketBuilder().connectTimeout(CONNECT_TIMEOUT).buildAsync(url, this)
+                    .thenApply(ws -> {
+                        socket = ws;
+                        synchronized (this) {
+                            lastSend = CompletableFuture.completedFuture(ws);
+                        }
+                        return ws;
+                    });
+        }
+
+        synchronized void send(String message) {
+            if (lastSend == null)
+                return;
+            lastSend = lastSend.thenCompose(ws -> ws.sendText(message, true)).exceptionally(ex -> {
+                failures.incrementAndGet();
+                return socket;
+            });
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                onMessage(text);
+            }
+            ws.request(1);
+            return null;
+        }
+
+        private void onMessage(String text) {
+            Map<String, String> msg;
+            try {
+                msg = Json.parseObject(text);
+            } catch (IllegalArgumentException ex) {
+                errors.incrementAndGet();
+                return;
+            }
+            String type = msg.get("type");
+            if ("created".equals(type) && isHost)
+                pair.created(msg.get("room"));
+            else if ("joined".equals(type) && !isHost)
+                pair.seated(true);
+            else if ("peer-joined".equals(type) && isHost)
+                pair.seated(false);
+            else if ("move".equals(type))
+                pair.opponentMoved();
+            else if ("result".equals(type))
+                results.incrementAndGet();
+            else if ("error".equals(type))
+                errors.incrementAndGet();
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            if (!stopping)
+                failures.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            if (!stopping)
+                failures.incrementAndGet();
+        }
+
+        void close() {
+            WebSocket ws = socket;
+            if (ws != null)
+                ws.abort();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String url = "ws://localhost:8080";
+        int rooms = 500;
+        double rate = 1;
+        double duration = 60;
+        double ramp = 10;
+        long seed = 1;
+        Path result = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq > 0 ? arg.substring(0, eq) : arg;
+            String value = eq > 0 ? arg.substring(eq + 1) : "";
+            switch (name) {
+                case "--url":
+                    url = value;
+                    break;
+                case "--rooms":
+                    rooms = Integer.parseInt(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(value);
+                    break;
+                case "--ramp":
+                    ramp = Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--result":
+                    result = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unbekannte Option: " + arg);
+            }
+        }
+        if (rooms <= 0 || rate <= 0)
+            throw new IllegalArgumentException("--rooms und --rate müssen positiv sein");
+
+        System.out.printf("%d Räume (%d Clients) gegen %s, %.1f Runden/s je Raum, %.0fs Anlauf + %.0fs Messung, Seed %d%n",
+                rooms, 2 * rooms, url, rate, ramp, duration, seed);
+        LoadGenerator generator = new LoadGenerator(URI.create(url), rooms, rate, (long) (duration * 1000),
+                (long) (ramp * 1000), seed);
+        generator.run();
+        if (result != null) {
+            Files.writeString(result, generator.resultJson() + "\n", StandardCharsets.UTF_8);
+            System.out.println("Ergebnis: " + result);
+        }
+        System.exit(0); // offene Verbindungen und HttpClient-Threads nicht abwarten
+    }
+}
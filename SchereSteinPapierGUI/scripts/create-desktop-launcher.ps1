@@ -3,7 +3,7 @@
 Create a desktop launcher for Windows
 
 What it does:
-- Compiles `src\App.java` to `bin` if needed and `javac` is available.
+- Compiles `src\App.java` to `bin` if needed and `javac` is available, and copies the icon bundle and rule sets into `bin`.
 - Attempts to create a runnable JAR `dist\SchereSteinPapier.jar` using the `jar` tool.
 - If JAR creation isn't possible, it falls back to creating a desktop shortcut that runs `java -cp "<project>\bin" App`.
 - Places a shortcut `SchereSteinPapier.lnk` on the current user's desktop.
@@ -46,6 +46,10 @@ else {
     Write-Info "javac not found — skipping compilation. Ensure classes exist in bin or install a JDK."
 }
 
+# Icons and rule sets are classpath resources (/images/icons.bundle, /rules/*.rules): copy them next to the classes
+Copy-Item -Path 'src\images\icons.bundle' -Destination (New-Item -ItemType Directory -Force -Path 'bin\images') -Force
+Copy-Item -Path 'src\rules\*.rules' -Destination (New-Item -ItemType Directory -Force -Path 'bin\rules') -Force
+
 # Prepare dist folder
 if (-not (Test-Path 'dist')) { New-Item -ItemType Directory -Path 'dist' | Out-Null }
 $jarPath = Join-Path $projectRoot 'dist\SchereSteinPapier.jar'
@@ -5,7 +5,7 @@ What it does:
 - Tries to install Temurin JDK 17 using `winget` (preferred) or `choco`
 - Detects the installed JDK and sets `JAVA_HOME` and updates PATH (temporary + persistent)
 - Verifies `java` and `javac` are available
-- Compiles `src\App.java` into `bin` and runs `App`
+- Compiles `src\App.java` into `bin`, copies the icon bundle and rule sets next to the classes and runs `App`
 
 Run with: (from project root)
 powershell -ExecutionPolicy Bypass -File .\scripts\install-jdk-and-run.ps1
@@ -169,6 +169,9 @@ try {
     Write-Host "Compiling src\App.java..." -ForegroundColor Cyan
     javac -d bin -sourcepath src src\App.java
     Write-Host "Compilation finished." -ForegroundColor Green
+    # Icons and rule sets are classpath resources (/images/icons.bundle, /rules/*.rules): copy them next to the classes
+    Copy-Item -Path 'src\images\icons.bundle' -Destination (New-Item -ItemType Directory -Force -Path 'bin\images') -Force
+    Copy-Item -Path 'src\rules\*.rules' -Destination (New-Item -ItemType Directory -Force -Path 'bin\rules') -Force
 }
 catch {
     Write-Error "Compilation failed: $($_.Exception.Message)"
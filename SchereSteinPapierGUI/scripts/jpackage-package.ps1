@@ -43,6 +43,10 @@ if (Get-Command javac -ErrorAction SilentlyContinue) {
     Ok "Compilation finished."
 } else { Info "javac not found; skipping compilation." }
 
+# Icons and rule sets are classpath resources (/images/icons.bundle, /rules/*.rules): copy them next to the classes
+Copy-Item -Path 'src\images\icons.bundle' -Destination (New-Item -ItemType Directory -Force -Path 'bin\images') -Force
+Copy-Item -Path 'src\rules\*.rules' -Destination (New-Item -ItemType Directory -Force -Path 'bin\rules') -Force
+
 if (Get-Command jar -ErrorAction SilentlyContinue -and (Test-Path 'bin')) {
     $jarPath = Join-Path $projectRoot "dist\$AppName.jar"
     Info "Creating runnable JAR: $jarPath"
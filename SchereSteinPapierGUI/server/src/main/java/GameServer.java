@@ -0,0 +1,349 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Spielserver für das Raum-Protokoll von web/app.js, als Ersatz für
+ * scripts/signaling-server.js.
+ *
+ * Gleiche Nachrichten wie der Relay-Server ({@code create}, {@code join},
+ * {@code move} von den Clients; {@code created}, {@code joined},
+ * {@code peer-joined}, {@code peer-left}, {@code move}, {@code error} vom
+ * Server), aber der Server entscheidet die Runden selbst mit
+ * {@link RoundEngine} wie {@code App.spiele}. Ein Zug wird erst verraten,
+ * wenn beide gesetzt haben: dann bekommt jeder Spieler den Zug des Gegners
+ * als {@code move} und gleich danach das verbindliche {@code result}.
+ *
+ * Ein einziger Event-Loop-Thread mit nicht blockierendem NIO bedient alle
+ * Verbindungen; der ganze Spielzustand gehört diesem Thread, Sperren gibt es
+ * keine. Der Raum einer Verbindung hängt direkt an ihr (O(1) beim Trennen
+ * statt alle Räume zu durchsuchen), Räume nach Code liegen in einer
+ * zugriffsgeordneten LinkedHashMap: der am längsten unbenutzte Raum steht
+ * vorn, und das Aufräumen untätiger Räume kostet nur so viel, wie es
+ * wegräumt. Ausgelegt auf 100.000 gleichzeitige Räume auf einem Rechner
+ * (dafür das Limit offener Dateien auf > 200.000 setzen).
+ *
+ * Start: {@code java GameServer [--port=8080] [--idle-minutes=10]}; ohne
+ * --port gilt wie beim Relay-Server die Umgebungsvariable PORT.
+ */
+final class GameServer {
+    static final int DEFAULT_PORT = 8080;
+    static final long DEFAULT_IDLE_MS = 10 * 60_000L;
+    static final int ROOM_CODE_LENGTH = 6;
+    private static final long SWEEP_INTERVAL_MS = 1000;
+    private static final long STATS_INTERVAL_MS = 60_000;
+    private static final String CODE_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private final long idleMs;
+    private final Selector selector;
+    private final ServerSocketChannel acceptor;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024); // für alle Verbindungen
+    private final SplittableRandom random = new SplittableRandom();
+
+    // Code -> Raum, zugriffsgeordnet: vorn der am längsten unbenutzte
+    private final Map<String, ServerRoom> rooms = new LinkedHashMap<>(1 << 16, 0.75f, true);
+    // Verbindungen ohne Raum in Verbindungsreihenfolge, fliegen nach idleMs raus
+    private final Map<ServerConnection, Boolean> lobby = new LinkedHashMap<>();
+    private int connections = 0;
+    private long nextSweep;
+    private long nextStats;
+
+    GameServer(int port, long idleMs) throws IOException {
+        this.idleMs = idleMs;
+        this.selector = Selector.open();
+        this.acceptor = ServerSocketChannel.open();
+        acceptor.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        acceptor.bind(new InetSocketAddress(port), 4096);
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    int port() throws IOException {
+        return ((InetSocketAddress) acceptor.getLocalAddress()).getPort();
+    }
+
+    /** Event-Loop; kehrt nicht zurück, solange der Thread nicht unterbrochen wird. */
+    void run() throws IOException {
+        long now = System.currentTimeMillis();
+        nextSweep = now + SWEEP_INTERVAL_MS;
+        nextStats = now + STATS_INTERVAL_MS;
+        while (!Thread.currentThread().isInterrupted()) {
+            selector.select(this::handle, SWEEP_INTERVAL_MS);
+            now = System.currentTimeMillis();
+            if (now >= nextSweep) {
+                evictIdle(now);
+                nextSweep = now + SWEEP_INTERVAL_MS;
+            }
+            if (now >= nextStats) {
+                System.out.println("Räume: " + rooms.size() + ", Verbindungen: " + connections);
+                nextStats = now + STATS_INTERVAL_MS;
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.channel() == acceptor) {
+            accept();
+            return;
+        }
+        ServerConnection conn = (ServerConnection) key.attachment();
+        if (conn == null)
+            return; // in diesem Durchlauf schon getrennt
+        try {
+            if (key.isValid() && key.isWritable())
+                conn.flush();
+            if (key.isValid() && key.isReadable()) {
+                readBuffer.clear();
+                int n = conn.channel.read(readBuffer);
+                if (n < 0) {
+                    disconnect(conn);
+                    return;
+                }
+                readBuffer.flip();
+                if (!conn.receive(readBuffer, this))
+                    disconnect(conn);
+            }
+        } catch (IOException ex) {
+            disconnect(conn);
+        }
+        if (!conn.channel.isOpen())
+            disconnect(conn); // nach gesendetem Close-Frame
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = acceptor.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                ServerConnection conn = new ServerConnection(channel, key, randomCode(), System.currentTimeMillis());
+                key.attach(conn);
+                lobby.put(conn, Boolean.TRUE);
+                connections++;
+            }
+        } catch (IOException ex) {
+            System.err.println("Annehmen fehlgeschlagen: " + ex.getMessage()); // z.B. zu viele offene Dateien
+        }
+    }
+
+    /** Eine fertige Textnachricht eines Clients. */
+    void onMessage(ServerConnection conn, String text) {
+        Map<String, String> msg;
+        try {
+            msg = Json.parseObject(text);
+        } catch (IllegalArgumentException ex) {
+            error(conn, "invalid json");
+            return;
+        }
+        String type = msg.get("type");
+        if ("create".equals(type))
+            create(conn);
+        else if ("join".equals(type))
+            join(conn, msg.get("room"));
+        else if ("move".equals(type))
+            move(conn, msg.get("room"), msg.get("move"));
+        else
+            error(conn, "unknown message type");
+    }
+
+    private void create(ServerConnection conn) {
+        leaveRoom(conn);
+        String code;
+        do {
+            code = randomCode();
+        } while (rooms.containsKey(code));
+        ServerRoom room = new ServerRoom(code, System.currentTimeMillis());
+        room.seat(conn);
+        rooms.put(code, room);
+        lobby.remove(conn);
+        send(conn, Json.object().put("type", "created").put("room", code).put("playerId", conn.id));
+    }
+
+    private void join(ServerConnection conn, String code) {
+        ServerRoom room = code != null ? rooms.get(code.trim().toUpperCase()) : null;
+        if (room == null) {
+            error(conn, "room not found");
+            return;
+        }
+        if (room == conn.room) {
+            error(conn, "already in room");
+            return;
+        }
+        if (room.isFull()) {
+            error(conn, "room full");
+            return;
+        }
+        leaveRoom(conn);
+        room.seat(conn);
+        room.lastActive = System.currentTimeMillis();
+        lobby.remove(conn);
+        ServerConnection other = room.opponent(conn);
+        send(conn, Json.object().put("type", "joined").put("room", room.code).put("playerId", conn.id)
+                .put("opponent", other != null ? other.id : null));
+        if (other != null)
+            send(other, Json.object().put("type", "peer-joined").put("playerId", conn.id));
+    }
+
+    private void move(ServerConnection conn, String code, String wire) {
+        ServerRoom room = conn.room;
+        if (room == null || code != null && !code.equals(room.code)) {
+            error(conn, "room not found");
+            return;
+        }
+        Move move = Move.fromWire(wire);
+        if (move == null) {
+            error(conn, "invalid move");
+            return;
+        }
+        if (room.moves[conn.seat] != null) {
+            error(conn, "already moved");
+            return;
+        }
+        touch(room);
+        room.moves[conn.seat] = move;
+        if (room.moves[0] != null && room.moves[1] != null && room.isFull())
+            resolve(room);
+    }
+
+    // beide haben gesetzt: Züge aufdecken und das Ergebnis verkünden
+    private void resolve(ServerRoom room) {
+        Move first = room.moves[0];
+        Move second = room.moves[1];
+        RoundEngine.Outcome outcome = RoundEngine.resolve(first, second); // aus Sicht von Platz 0
+        if (outcome == RoundEngine.Outcome.WIN)
+            room.wins[0]++;
+        else if (outcome == RoundEngine.Outcome.LOSE)
+            room.wins[1]++;
+        int round = room.round++;
+        room.moves[0] = null;
+        room.moves[1] = null;
+        ServerConnection[] seated = room.players.clone(); // ein Sendefehler trennt und leert den Platz
+        for (int seat = 0; seat < 2; seat++) {
+            ServerConnection player = seated[seat];
+            ServerConnection other = seated[1 - seat];
+            Move mine = seat == 0 ? first : second;
+            Move theirs = seat == 0 ? second : first;
+            RoundEngine.Outcome own = seat == 0 ? outcome : RoundEngine.resolve(mine, theirs);
+            send(player, Json.object().put("type", "move").put("player", other.id).put("move", theirs.wire));
+            send(player, Json.object().put("type", "result").put("room", room.code).put("round", round)
+                    .put("move", mine.wire).put("opponentMove", theirs.wire).put("outcome", own.status)
+                    .put("wins", room.wins[seat]).put("losses", room.wins[1 - seat]));
+        }
+    }
+
+    private void touch(ServerRoom room) {
+        room.lastActive = System.currentTimeMillis();
+        rooms.get(room.code); // ans Ende der Zugriffsreihenfolge
+    }
+
+    private void leaveRoom(ServerConnection conn) {
+        ServerRoom room = conn.room;
+        if (room == null)
+            return;
+        room.leave(conn);
+        ServerConnection other = room.players[0] != null ? room.players[0] : room.players[1];
+        if (other != null)
+            send(other, Json.object().put("type", "peer-left").put("playerId", conn.id));
+        if (room.isEmpty())
+            rooms.remove(room.code);
+    }
+
+    private void disconnect(ServerConnection conn) {
+        if (conn.key.attachment() == null)
+            return; // schon aufgeräumt
+        conn.key.attach(null);
+        conn.key.cancel();
+        lobby.remove(conn);
+        leaveRoom(conn);
+        connections--;
+        try {
+            conn.channel.close();
+        } catch (IOException ignored) {
+            // war schon zu
+        }
+    }
+
+    // Räume ohne Zug seit idleMs und Verbindungen, die nie einen Raum hatten
+    private void evictIdle(long now) {
+        long cutoff = now - idleMs;
+        Iterator<ServerRoom> roomIt = rooms.values().iterator();
+        while (roomIt.hasNext()) {
+            ServerRoom room = roomIt.next();
+            if (room.lastActive > cutoff)
+                break; // alle weiteren wurden später benutzt
+            roomIt.remove();
+            for (ServerConnection player : room.players) {
+                if (player != null) {
+                    error(player, "room expired");
+                    room.leave(player);
+                    close(player, WebSocketCodec.CLOSE_GOING_AWAY);
+                }
+            }
+        }
+        Iterator<ServerConnection> lobbyIt = lobby.keySet().iterator();
+        while (lobbyIt.hasNext()) {
+            ServerConnection conn = lobbyIt.next();
+            if (conn.connectedAt > cutoff)
+                break;
+            lobbyIt.remove();
+            close(conn, WebSocketCodec.CLOSE_GOING_AWAY);
+        }
+    }
+
+    private void close(ServerConnection conn, int code) {
+        try {
+            conn.fail(code);
+        } catch (IOException ex) {
+            disconnect(conn);
+            return;
+        }
+        if (!conn.channel.isOpen())
+            disconnect(conn);
+    }
+
+    private void error(ServerConnection conn, String message) {
+        send(conn, Json.object().put("type", "error").put("message", message));
+    }
+
+    private void send(ServerConnection conn, Json.Builder message) {
+        try {
+            conn.sendText(message.toString());
+        } catch (IOException ex) {
+            disconnect(conn);
+        }
+    }
+
+    private String randomCode() {
+        char[] code = new char[ROOM_CODE_LENGTH];
+        for (int i = 0; i < code.length; i++)
+            code[i] = CODE_CHARS.charAt(random.nextInt(CODE_CHARS.length()));
+        return new String(code);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String env = System.getenv("PORT");
+        int port = env != null ? Integer.parseInt(env.trim()) : DEFAULT_PORT;
+        long idleMs = DEFAULT_IDLE_MS;
+        for (String arg : args) {
+            if (arg.startsWith("--port="))
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            else if (arg.startsWith("--idle-minutes="))
+                idleMs = (long) (Double.parseDouble(arg.substring("--idle-minutes=".length())) * 60_000);
+            else
+                throw new IllegalArgumentException("Unbekannte Option: " + arg);
+        }
+        GameServer server = new GameServer(port, idleMs);
+        System.out.println("Spielserver läuft auf ws://0.0.0.0:" + server.port());
+        server.run();
+    }
+}
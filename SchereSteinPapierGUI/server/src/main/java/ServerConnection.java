@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Eine Client-Verbindung des {@link GameServer}: Handshake, Frames lesen,
+ * gepuffertes Schreiben. Gehört ausschließlich dem Event-Loop-Thread.
+ *
+ * Gelesen wird in den gemeinsamen Empfangspuffer des Servers; nur ein
+ * unvollständiger Rest (halber Frame) wird pro Verbindung aufgehoben. Auch
+ * der Sendepuffer entsteht erst, wenn der Socket nicht alles auf einmal
+ * annimmt. Eine ruhende Verbindung kostet so nur dieses Objekt.
+ */
+final class ServerConnection {
+    static final int MAX_HANDSHAKE_BYTES = 8192;
+    static final int MAX_MESSAGE_BYTES = 4096;
+    static final int MAX_QUEUED_BYTES = 64 * 1024; // langsamer Leser: Verbindung wird getrennt
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final String id;
+    final long connectedAt;
+
+    ServerRoom room; // null: noch in keinem Raum
+    int seat; // Platz im Raum, 0 oder 1
+
+    private boolean upgraded = false;
+    private boolean closing = false; // Close-Frame gesendet, nach dem Senden schließen
+    private ByteBuffer leftover; // unvollständiger Frame aus dem letzten Lesen
+    private byte[] fragments; // Teile einer fragmentierten Textnachricht
+    private ArrayDeque<ByteBuffer> outbox;
+    private int queuedBytes = 0;
+
+    ServerConnection(SocketChannel channel, SelectionKey key, String id, long connectedAt) {
+        this.channel = channel;
+        this.key = key;
+        this.id = id;
+        this.connectedAt = connectedAt;
+    }
+
+    boolean isClosing() {
+        return closing;
+    }
+
+    /**
+     * Verarbeitet frisch gelesene Bytes (in, bereit zum Lesen); fertige
+     * Textnachrichten gehen an server.onMessage.
+     *
+     * @return false, wenn die Verbindung geschlossen werden soll
+     */
+    boolean receive(ByteBuffer in, GameServer server) throws IOException {
+        ByteBuffer data = in;
+        if (leftover != null) {
+            data = ByteBuffer.allocate(leftover.remaining() + in.remaining());
+            data.put(leftover).put(in).flip();
+            leftover = null;
+        }
+        while (data.hasRemaining() && !closing) {
+            int consumed = upgraded ? readFrame(data, server) : readHandshake(data);
+            if (consumed < 0)
+                return false;
+            if (consumed == 0)
+                break; // unvollständig, auf mehr Bytes warten
+        }
+        if (data.hasRemaining() && !closing) {
+            int limit = upgraded ? MAX_MESSAGE_BYTES + 14 : MAX_HANDSHAKE_BYTES;
+            if (data.remaining() > limit) {
+                fail(WebSocketCodec.CLOSE_TOO_BIG);
+                return true;
+            }
+            leftover = ByteBuffer.allocate(data.remaining()).put(data).flip();
+        }
+        return true;
+    }
+
+    // liefert verbrauchte Bytes, 0 = unvollständig, -1 = sofort schließen
+    private int readHandshake(ByteBuffer data) throws IOException {
+        int end = WebSocketCodec.headerEnd(data);
+        if (end < 0)
+            return 0;
+        byte[] raw = new byte[end - data.position()];
+        data.get(raw);
+        String response = WebSocketCodec.handshakeResponse(new String(raw, StandardCharsets.ISO_8859_1));
+        if (response == null) {
+            send(ByteBuffer.wrap(WebSocketCodec.BAD_REQUEST.getBytes(StandardCharsets.ISO_8859_1)));
+            closing = true;
+            finishIfFlushed();
+            return raw.length;
+        }
+        send(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+        upgraded = true;
+        return raw.length;
+    }
+
+    private int readFrame(ByteBuffer data, GameServer server) throws IOException {
+        int start = data.position();
+        int available = data.remaining();
+        if (available < 2)
+            return 0;
+        int b0 = data.get(start) & 0xFF;
+        int b1 = data.get(start + 1) & 0xFF;
+        boolean fin = (b0 & 0x80) != 0;
+        int opcode = b0 & 0x0F;
+        if ((b1 & 0x80) == 0) {
+            fail(WebSocketCodec.CLOSE_PROTOCOL_ERROR); // Clients müssen maskieren
+            return available;
+        }
+        long length = b1 & 0x7F;
+        int header = 2;
+        if (length == 126) {
+            if (available < 4)
+                return 0;
+            length = data.getShort(start + 2) & 0xFFFF;
+            header = 4;
+        } else if (length == 127) {
+            if (available < 10)
+                return 0;
+            length = data.getLong(start + 2);
+            header = 10;
+        }
+        if (length < 0 || length > MAX_MESSAGE_BYTES) {
+            fail(WebSocketCodec.CLOSE_TOO_BIG);
+            return available;
+        }
+        int total = header + 4 + (int) length;
+        if (available < total)
+            return 0;
+
+        byte[] payload = new byte[(int) length];
+        int mask = start + header;
+        for (int i = 0; i < payload.length; i++)
+            payload[i] = (byte) (data.get(mask + 4 + i) ^ data.get(mask + (i & 3)));
+        data.position(start + total);
+
+        switch (opcode) {
+            case WebSocketCodec.OP_TEXT:
+            case WebSocketCodec.OP_CONTINUATION:
+                if (opcode == WebSocketCodec.OP_TEXT && fragments != null
+                        || opcode == WebSocketCodec.OP_CONTINUATION && fragments == null) {
+                    fail(WebSocketCodec.CLOSE_PROTOCOL_ERROR);
+                    break;
+                }
+                if (fragments != null) {
+                    if (fragments.length + payload.length > MAX_MESSAGE_BYTES) {
+                        fail(WebSocketCodec.CLOSE_TOO_BIG);
+                        break;
+                    }
+                    byte[] joined = new byte[fragments.length + payload.length];
+                    System.arraycopy(fragments, 0, joined, 0, fragments.length);
+                    System.arraycopy(payload, 0, joined, fragments.length, payload.length);
+                    payload = joined;
+                }
+                if (fin) {
+                    fragments = null;
+                    server.onMessage(this, new String(payload, StandardCharsets.UTF_8));
+                } else {
+                    fragments = payload;
+                }
+                break;
+            case WebSocketCodec.OP_PING:
+                send(WebSocketCodec.frame(WebSocketCodec.OP_PONG, payload));
+                break;
+            case WebSocketCodec.OP_PONG:
+                break;
+            case WebSocketCodec.OP_CLOSE:
+                fail(WebSocketCodec.CLOSE_NORMAL); // Close beantworten, dann trennen
+                break;
+            default:
+                fail(WebSocketCodec.CLOSE_UNSUPPORTED); // binär oder unbekannt
+        }
+        return total;
+    }
+
+    /** Sendet eine Textnachricht. */
+    void sendText(String message) throws IOException {
+        if (upgraded && !closing)
+            send(WebSocketCodec.text(message));
+    }
+
+    /** Sendet einen Close-Frame; geschlossen wird, sobald er raus ist. */
+    void fail(int code) throws IOException {
+        if (closing)
+            return;
+        if (upgraded)
+            send(WebSocketCodec.close(code));
+        closing = true;
+        finishIfFlushed();
+    }
+
+    private void send(ByteBuffer frame) throws IOException {
+        if (outbox == null || outbox.isEmpty()) {
+            channel.write(frame);
+            if (!frame.hasRemaining())
+                return;
+            if (outbox == null)
+                outbox = new ArrayDeque<>(4);
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        queuedBytes += frame.remaining();
+        outbox.add(frame);
+        if (queuedBytes > MAX_QUEUED_BYTES)
+            throw new IOException("Client liest nicht mehr mit");
+    }
+
+    /** Socket ist wieder schreibbar: Warteschlange leeren. */
+    void flush() throws IOException {
+        while (outbox != null && !outbox.isEmpty()) {
+            ByteBuffer head = outbox.peek();
+            int before = head.remaining();
+            channel.write(head);
+            queuedBytes -= before - head.remaining();
+            if (head.hasRemaining())
+                return;
+            outbox.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        finishIfFlushed();
+    }
+
+    private void finishIfFlushed() throws IOException {
+        if (closing && (outbox == null || outbox.isEmpty()))
+            channel.close(); // Server räumt beim nächsten Select-Durchlauf auf
+    }
+}
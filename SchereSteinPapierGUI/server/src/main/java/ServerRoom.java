@@ -0,0 +1,49 @@
+/**
+ * Ein Raum für zwei Spieler mit dem Zustand der laufenden Runde. Der Server
+ * entscheidet jede Runde selbst ({@link RoundEngine}); die Clients bekommen
+ * beide Züge erst, wenn beide gesetzt haben. Gehört dem Event-Loop-Thread.
+ */
+final class ServerRoom {
+    final String code;
+    final ServerConnection[] players = new ServerConnection[2];
+    final Move[] moves = new Move[2]; // Züge der laufenden Runde, null = fehlt noch
+    final int[] wins = new int[2];
+    int round = 1;
+    long lastActive;
+
+    ServerRoom(String code, long now) {
+        this.code = code;
+        this.lastActive = now;
+    }
+
+    boolean isFull() {
+        return players[0] != null && players[1] != null;
+    }
+
+    boolean isEmpty() {
+        return players[0] == null && players[1] == null;
+    }
+
+    /** Setzt den Spieler auf den freien Platz. */
+    void seat(ServerConnection player) {
+        int seat = players[0] == null ? 0 : 1;
+        players[seat] = player;
+        player.room = this;
+        player.seat = seat;
+    }
+
+    /** Nimmt den Spieler heraus; Runde und Punktestand beginnen von vorn. */
+    void leave(ServerConnection player) {
+        players[player.seat] = null;
+        player.room = null;
+        moves[0] = null;
+        moves[1] = null;
+        wins[0] = 0;
+        wins[1] = 0;
+        round = 1;
+    }
+
+    ServerConnection opponent(ServerConnection player) {
+        return players[1 - player.seat];
+    }
+}
@@ -0,0 +1,111 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Das Nötigste aus RFC 6455 für den Spielserver: Upgrade-Handshake lesen und
+ * beantworten, Frames kodieren. Frames lesen erledigt {@link ServerConnection}
+ * direkt auf dem Empfangspuffer.
+ */
+final class WebSocketCodec {
+    static final int OP_CONTINUATION = 0x0;
+    static final int OP_TEXT = 0x1;
+    static final int OP_BINARY = 0x2;
+    static final int OP_CLOSE = 0x8;
+    static final int OP_PING = 0x9;
+    static final int OP_PONG = 0xA;
+
+    static final int CLOSE_NORMAL = 1000;
+    static final int CLOSE_GOING_AWAY = 1001;
+    static final int CLOSE_PROTOCOL_ERROR = 1002;
+    static final int CLOSE_UNSUPPORTED = 1003;
+    static final int CLOSE_TOO_BIG = 1009;
+
+    static final String BAD_REQUEST = "HTTP/1.1 400 Bad Request\r\nConnection: close\r\nContent-Length: 0\r\n\r\n";
+
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final byte[] HEADER_END = { '\r', '\n', '\r', '\n' };
+
+    private WebSocketCodec() {
+    }
+
+    /** Position direkt hinter dem Header-Ende (Leerzeile) ab position(), sonst -1. */
+    static int headerEnd(ByteBuffer in) {
+        outer: for (int i = in.position(); i <= in.limit() - HEADER_END.length; i++) {
+            for (int j = 0; j < HEADER_END.length; j++) {
+                if (in.get(i + j) != HEADER_END[j])
+                    continue outer;
+            }
+            return i + HEADER_END.length;
+        }
+        return -1;
+    }
+
+    /**
+     * Antwort auf eine HTTP-Anfrage: 101 mit Accept-Schlüssel für einen
+     * gültigen WebSocket-Upgrade, sonst null.
+     */
+    static String handshakeResponse(String request) {
+        String[] lines = request.split("\r\n");
+        if (lines.length == 0 || !lines[0].startsWith("GET "))
+            return null;
+        String key = null;
+        boolean upgrade = false;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0)
+                continue;
+            String name = lines[i].substring(0, colon).trim();
+            String value = lines[i].substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Sec-WebSocket-Key"))
+                key = value;
+            else if (name.equalsIgnoreCase("Upgrade"))
+                upgrade = value.equalsIgnoreCase("websocket");
+        }
+        if (!upgrade || key == null)
+            return null;
+        return "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+    }
+
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // gehört zu jeder Java-Plattform
+        }
+    }
+
+    /** Unmaskierter Server-Frame mit FIN-Bit. */
+    static ByteBuffer frame(int opcode, byte[] payload) {
+        int n = payload.length;
+        int header = n < 126 ? 2 : n <= 0xFFFF ? 4 : 10;
+        ByteBuffer out = ByteBuffer.allocate(header + n);
+        out.put((byte) (0x80 | opcode));
+        if (n < 126) {
+            out.put((byte) n);
+        } else if (n <= 0xFFFF) {
+            out.put((byte) 126);
+            out.putShort((short) n);
+        } else {
+            out.put((byte) 127);
+            out.putLong(n);
+        }
+        out.put(payload);
+        return out.flip();
+    }
+
+    static ByteBuffer text(String message) {
+        return frame(OP_TEXT, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ByteBuffer close(int code) {
+        return frame(OP_CLOSE, new byte[] { (byte) (code >> 8), (byte) code });
+    }
+}
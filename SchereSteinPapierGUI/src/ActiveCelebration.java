@@ -0,0 +1,196 @@
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Aktives Rendern der Jubel-Feier auf einem eigenen Thread.
+ *
+ * Statt auf zusammengefasste repaint()-Aufrufe von Swing zu warten, zeichnet
+ * ein Render-Thread im Takt der Ziel-Framerate direkt in eine
+ * {@link BufferStrategy} (doppelt gepufferte, beschleunigte Oberfläche) eines
+ * {@link Canvas}, das für die Dauer der Feier über dem Panel liegt. Der
+ * unbewegte Hintergrund (Icons, Text) wird einmal auf dem EDT in ein
+ * BufferedImage gezeichnet und im Grafikspeicher als {@link VolatileImage}
+ * gehalten. Gehen Oberflächen verloren (Displaywechsel, Bildschirmsperre),
+ * wird der Hintergrund neu übertragen und der Frame wiederholt.
+ *
+ * Der Thread ist während der Feier der einzige Leser von
+ * {@link ParticleSimulation#latest()} und spielt auch das Jubel-GIF ab, weil
+ * ein leichtgewichtiges Overlay über einem Canvas nicht sichtbar wäre. Am
+ * Ende wird onFinished mit dieser Instanz auf dem EDT aufgerufen, das den
+ * Canvas wieder entfernt.
+ * Einschalten mit {@code -Dssp.activeRendering=true}.
+ */
+final class ActiveCelebration {
+    private static final int FRAME_RETRIES = 3; // Versuche pro Frame bei verlorenem Puffer
+
+    private final Canvas canvas = new Canvas();
+    private final ParticleSimulation simulation;
+    private final CelebrationGif gif; // darf null sein
+    private final FrameGovernor governor;
+    private final int durationMs;
+    private final Consumer<ActiveCelebration> onFinished;
+
+    private volatile BufferedImage background; // vom EDT gezeichnet
+    private volatile boolean stopped = false;
+    private VolatileImage backgroundVram; // gehört dem Render-Thread
+    private BufferedImage backgroundCopied;
+    private Thread thread;
+
+    ActiveCelebration(ParticleSimulation simulation, CelebrationGif gif, FrameGovernor governor, int durationMs,
+            Consumer<ActiveCelebration> onFinished) {
+        this.simulation = simulation;
+        this.gif = gif;
+        this.governor = governor;
+        this.durationMs = durationMs;
+        this.onFinished = onFinished;
+        canvas.setIgnoreRepaint(true); // kein passives Zeichnen durch AWT
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean("ssp.activeRendering") && !GraphicsEnvironment.isHeadless();
+    }
+
+    Canvas getCanvas() {
+        return canvas;
+    }
+
+    /** Neuer unbewegter Hintergrund (nur auf dem EDT aufrufen). */
+    void setBackground(BufferedImage image) {
+        background = image;
+    }
+
+    /**
+     * Startet den Render-Thread. Der Canvas muss bereits in einem sichtbaren
+     * Container liegen; nur auf dem EDT aufrufen.
+     */
+    void start() {
+        canvas.createBufferStrategy(2);
+        thread = new Thread(this::renderLoop, "celebration-render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Beendet die Feier vorzeitig und wartet, bis der Render-Thread wirklich
+     * beendet ist: erst danach darf eine neue Feier starten, sonst holten zwei
+     * Threads Schnappschüsse und zeichneten gleichzeitig GIF und
+     * {@link ParticleAtlas}. Das dauert höchstens ein Frame, denn der Thread
+     * wartet nie auf den EDT. onFinished wird trotzdem aufgerufen.
+     */
+    void stop() {
+        stopped = true;
+        if (thread == null)
+            return;
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                interrupted = true; // trotzdem zu Ende warten
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void renderLoop() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long frameNanos = 1_000_000_000L / governor.getTargetFps();
+        long startNanos = System.nanoTime();
+        long next = startNanos;
+        try {
+            while (!stopped && simulation.isRunning()) {
+                long frameStart = System.nanoTime();
+                int elapsedMs = (int) ((frameStart - startNanos) / 1_000_000L);
+                renderFrame(strategy, elapsedMs);
+                governor.recordPaint(frameStart, System.nanoTime());
+
+                next += frameNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0)
+                    LockSupport.parkNanos(wait);
+                else if (-wait > frameNanos)
+                    next = System.nanoTime(); // zu weit hinten: nicht alles nachholen
+            }
+        } catch (RuntimeException ex) {
+            System.err.println("Aktives Rendern abgebrochen: " + ex);
+        } finally {
+            if (backgroundVram != null)
+                backgroundVram.flush();
+            SwingUtilities.invokeLater(() -> onFinished.accept(this));
+        }
+    }
+
+    private void renderFrame(BufferStrategy strategy, int elapsedMs) {
+        ParticleSystem particles = simulation.latest();
+        float alpha = simulation.interpolation();
+        BufferedImage gifFrame = gif != null && elapsedMs < durationMs ? gif.frameAt(elapsedMs) : null;
+        int w = canvas.getWidth();
+        int h = canvas.getHeight();
+        if (w <= 0 || h <= 0)
+            return;
+        for (int attempt = 0; attempt < FRAME_RETRIES; attempt++) {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, governor.antialiasing()
+                            ? RenderingHints.VALUE_ANTIALIAS_ON
+                            : RenderingHints.VALUE_ANTIALIAS_OFF);
+                    drawBackground(g, w, h);
+                    particles.draw(g, alpha);
+                    if (gifFrame != null)
+                        g.drawImage(gifFrame, 0, 0, null);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored()); // Puffer wiederhergestellt: nochmal zeichnen
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync();
+            if (!strategy.contentsLost())
+                return;
+        }
+    }
+
+    // zeichnet den Hintergrund aus dem Grafikspeicher; legt ihn bei Verlust neu an
+    private void drawBackground(Graphics2D g, int w, int h) {
+        BufferedImage source = background;
+        if (source == null) {
+            g.setColor(canvas.getBackground());
+            g.fillRect(0, 0, w, h);
+            return;
+        }
+        GraphicsConfiguration gc = canvas.getGraphicsConfiguration();
+        for (int attempt = 0; attempt < FRAME_RETRIES; attempt++) {
+            int state = backgroundVram == null || backgroundVram.getWidth() != source.getWidth()
+                    || backgroundVram.getHeight() != source.getHeight()
+                            ? VolatileImage.IMAGE_INCOMPATIBLE
+                            : backgroundVram.validate(gc);
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (backgroundVram != null)
+                    backgroundVram.flush();
+                backgroundVram = gc.createCompatibleVolatileImage(source.getWidth(), source.getHeight());
+                backgroundCopied = null;
+            }
+            if (state == VolatileImage.IMAGE_RESTORED || backgroundCopied != source) {
+                Graphics2D vg = backgroundVram.createGraphics();
+                try {
+                    vg.setComposite(AlphaComposite.Src);
+                    vg.drawImage(source, 0, 0, null);
+                } finally {
+                    vg.dispose();
+                }
+                backgroundCopied = source;
+            }
+            g.drawImage(backgroundVram, 0, 0, null);
+            if (!backgroundVram.contentsLost())
+                return;
+            backgroundCopied = null; // beim nächsten Versuch neu übertragen
+        }
+        g.drawImage(source, 0, 0, null); // Grafikspeicher streikt: direkt aus dem Hauptspeicher
+    }
+}
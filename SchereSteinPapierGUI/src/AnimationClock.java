@@ -0,0 +1,134 @@
+import javax.swing.Timer;
+
+/**
+ * Zentrale Animationsuhr für alle Animationen im Fenster.
+ *
+ * Ein einziger Swing-Timer läuft, solange es Abonnenten gibt. Jeder Abonnent
+ * hat eine eigene feste Schrittweite; pro Frame wird die tatsächlich
+ * vergangene Zeit in feste Simulationsschritte umgerechnet ("fixed timestep")
+ * und anschließend mit dem Rest als Interpolationsfaktor gerendert. Hängt ein
+ * Frame zu lange, werden höchstens {@link #MAX_STEPS_PER_FRAME} Schritte
+ * nachgeholt und der Rest verworfen: die Animation springt kurz, wird aber nie
+ * dauerhaft langsamer.
+ *
+ * Läuft ausschließlich auf dem EDT.
+ */
+class AnimationClock {
+    static final int FRAME_DELAY_MS = 16; // ~60 FPS
+    static final int MAX_STEPS_PER_FRAME = 5;
+    private static final long MAX_FRAME_NANOS = 250_000_000L; // größere Lücken (z.B. Standby) kappen
+
+    interface Subscriber {
+        /**
+         * Ein fester Simulationsschritt.
+         *
+         * @return false, um sich von der Uhr abzumelden
+         */
+        boolean step();
+
+        /**
+         * Wird einmal pro Frame nach den Schritten aufgerufen.
+         *
+         * @param alpha Anteil 0..1 bis zum nächsten Schritt (für Interpolation)
+         */
+        default void render(double alpha) {
+        }
+    }
+
+    /** Anmeldung an der Uhr; {@link #cancel()} meldet wieder ab. */
+    static final class Handle {
+        private final Subscriber subscriber;
+        private final long stepNanos;
+        private long accumulator = 0;
+        private boolean cancelled = false;
+
+        private Handle(Subscriber subscriber, long stepNanos) {
+            this.subscriber = subscriber;
+            this.stepNanos = stepNanos;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isActive() {
+            return !cancelled;
+        }
+    }
+
+    private final Timer timer;
+    private final java.util.List<Handle> handles = new java.util.ArrayList<>();
+    private final java.util.List<Handle> pending = new java.util.ArrayList<>();
+    private boolean ticking = false;
+    private long lastNanos;
+
+    AnimationClock() {
+        timer = new Timer(FRAME_DELAY_MS, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    /** Abonnent mit fester Schrittweite in Millisekunden anmelden. */
+    Handle subscribe(int stepMs, Subscriber subscriber) {
+        Handle handle = new Handle(subscriber, stepMs * 1_000_000L);
+        if (ticking) {
+            pending.add(handle); // erst ab dem nächsten Frame
+        } else {
+            handles.add(handle);
+        }
+        if (!timer.isRunning()) {
+            lastNanos = System.nanoTime();
+            timer.start();
+        }
+        return handle;
+    }
+
+    /** Einmalige Aktion nach delayMs, auf der gleichen Uhr wie die Animationen. */
+    Handle schedule(int delayMs, Runnable action) {
+        return subscribe(delayMs, () -> {
+            action.run();
+            return false;
+        });
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long elapsed = Math.min(MAX_FRAME_NANOS, now - lastNanos);
+        lastNanos = now;
+
+        ticking = true;
+        try {
+            for (int i = 0; i < handles.size(); i++) {
+                Handle h = handles.get(i);
+                if (h.cancelled)
+                    continue;
+                h.accumulator += elapsed;
+                int steps = 0;
+                while (h.accumulator >= h.stepNanos && steps < MAX_STEPS_PER_FRAME) {
+                    h.accumulator -= h.stepNanos;
+                    steps++;
+                    if (!h.subscriber.step()) {
+                        h.cancelled = true;
+                        break;
+                    }
+                }
+                if (h.cancelled)
+                    continue;
+                if (h.accumulator >= h.stepNanos) {
+                    // zu weit zurück: Rückstand verwerfen statt langsamer zu werden
+                    h.accumulator %= h.stepNanos;
+                }
+                h.subscriber.render(h.accumulator / (double) h.stepNanos);
+            }
+        } finally {
+            ticking = false;
+        }
+
+        handles.removeIf(h -> h.cancelled);
+        if (!pending.isEmpty()) {
+            handles.addAll(pending);
+            pending.clear();
+        }
+        if (handles.isEmpty())
+            timer.stop();
+    }
+}
@@ -3,6 +3,7 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 
 public class App {
     // cleaned stray tokens (editor buffer) - verified on-disk
@@ -10,301 +11,366 @@ public class App {
     private static int buttonSize = 120;
     private static boolean roundedButtons = false;
 
+    // Waffensatz und Regeln (-Dssp.rules=classic|rpsls|rps101|Datei), im Spiel umschaltbar
+    private static RuleSet rules = RuleSet.fromProperties();
+    private static MatchOdds odds = MatchOdds.uniform(rules.size());
+    private static final int BUTTON_GRID_COLUMNS = 10; // ab sechs Waffen: Raster statt einer Reihe
+    private static final int BUTTON_GRID_ROWS_VISIBLE = 3;
+
+    // Computer-Gegner: zufällig oder lernend
+    private static boolean smartOpponentEnabled = false;
+    private static final SmartOpponent smartOpponent = new SmartOpponent();
+
     // Konfetti-Partikel
-    private static final int CONFETTI_DURATION_MS = 5000; // gewünschte Dauer in ms
-    private static final int CONFETTI_TIMER_DELAY_MS = 40; // Timer-Tick in ms (~25 FPS)
+    private static final int CONFETTI_TIMER_DELAY_MS = 40; // Simulationsschritt in ms (~25 Schritte/s)
     private static final int CELEBRATION_DURATION_MS = 15000; // 15 Sekunden für den großen Jubel
 
-    private static class Confetti {
-        double x, y;
-        double vx, vy;
-        Color color;
-        int life;
-        int maxLife;
-        int size;
-
-        Confetti(double x, double y) {
-            this.x = x;
-            this.y = y;
-            this.vx = (Math.random() - 0.5) * 30; // noch stärkere seitliche Geschwindigkeit
-            this.vy = -24 - Math.random() * 24; // deutlich höherer Aufschub
-            int[] colors = { 0xFF6B6B, 0x4ECDC4, 0xFFE66D, 0xFF8A65, 0xAE73DC, 0xFF1493, 0x00CED1 };
-            this.color = new Color(colors[(int) (Math.random() * colors.length)]);
-            int baseTicks = CONFETTI_DURATION_MS / CONFETTI_TIMER_DELAY_MS;
-            int variance = (int) (Math.random() * 40) - 20; // +/- 20 ticks Variation
-            this.maxLife = Math.max(10, baseTicks + variance);
-            this.life = this.maxLife; // verbleibende Lebenszeit
-            this.size = 18 + (int) (Math.random() * 14); // deutlich größere Partikel
-        }
-
-        // Overloaded constructor for custom-life/size confetti (used for large
-        // celebration)
-        Confetti(double x, double y, int customMaxLife, int customSize, double vxMultiplier, double vyBase) {
-            this.x = x;
-            this.y = y;
-            this.vx = (Math.random() - 0.5) * vxMultiplier;
-            this.vy = -(Math.random() * vyBase); // start with slight upward/neutral burst
-            int[] colors = { 0xFF6B6B, 0x4ECDC4, 0xFFE66D, 0xFF8A65, 0xAE73DC, 0xFF1493, 0x00CED1 };
-            this.color = new Color(colors[(int) (Math.random() * colors.length)]);
-            this.maxLife = Math.max(10, customMaxLife);
-            this.life = this.maxLife;
-            this.size = Math.max(4, customSize);
-        }
-
-        void update() {
-            x += vx;
-            y += vy;
-            vy += 0.12; // leichte Gravitation, damit die Partikel länger schweben
-            life -= 1; // langsameres Ausblenden -> länger sichtbar
-        }
-
-        boolean isAlive() {
-            return life > 0;
-        }
-
-        void draw(Graphics2D g) {
-            double ratio = Math.max(0.0, Math.min(1.0, life / (double) maxLife));
-            int alpha = (int) (255 * ratio);
-            alpha = Math.min(255, Math.max(0, alpha));
-            g.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha));
-            g.fillOval((int) x, (int) y, size, size);
-        }
-    }
-
-    private static java.util.List<Confetti> confetti = new java.util.ArrayList<>();
+    // gemeinsame Uhr für Kampf-Animation, Jubel und zeitversetzte Aktionen
+    private static final AnimationClock animationClock = new AnimationClock();
+    // passt die Effektdichte an die gemessene Framezeit an (-Dssp.targetFps)
+    static final FrameGovernor frameGovernor = FrameGovernor.fromProperties();
 
-    // Firework + Spark classes for celebration
-    private static class Spark {
-        double x, y, vx, vy;
-        int life, maxLife;
-        Color color;
+    // Jubel-GIF, ab der ersten Runde im Hintergrund vorausdekodiert (null, wenn nicht vorhanden)
+    private static CelebrationGif celebrationGif = null;
+    private static boolean celebrationGifOpened = false;
 
-        Spark(double x, double y, double vx, double vy, int life, Color color) {
-            this.x = x;
-            this.y = y;
-            this.vx = vx;
-            this.vy = vy;
-            this.maxLife = life;
-            this.life = life;
-            this.color = color;
-        }
+    // dauerhafte Rundenchronik, mit dem ersten Zug geöffnet (null: aus, belegt oder kaputt)
+    private static MatchHistory matchHistory = null;
+    private static boolean matchHistoryOpened = false;
+    private static int currentMatchId = 0; // 0: im laufenden Match noch keine Runde
 
-        void update() {
-            x += vx;
-            y += vy;
-            vy += 0.12; // gravity
-            // air drag
-            vx *= 0.995;
-            vy *= 0.998;
-            life--;
-        }
+    // Online-Modus gegen einen Spieler im selben Raum (null: gegen den Computer), nur auf dem EDT
+    private static NetworkMatch networkMatch = null;
+    private static boolean opponentPresent = false;
+    private static Move onlineOwnMove = null; // eigener Zug der laufenden Online-Runde
+    private static Move onlineOpponentMove = null; // Zug des Gegners, falls er schneller war
+    private static int onlineWins = -1; // Spielstand laut Spielserver, -1: selbst zählen (Relay)
+    private static int onlineLosses = -1;
 
-        boolean isAlive() {
-            return life > 0;
-        }
+    private static class GameResult {
+        final RoundEngine.Outcome outcome;
+        final RuleSet.Weapon playerChoice;
+        final RuleSet.Weapon computerChoice;
 
-        void draw(Graphics2D g) {
-            double ratio = Math.max(0.0, Math.min(1.0, life / (double) maxLife));
-            int alpha = (int) (255 * ratio);
-            alpha = Math.min(255, Math.max(0, alpha));
-            g.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha));
-            int s = Math.max(2, (int) (4 * ratio));
-            g.fillOval((int) x, (int) y, s, s);
+        GameResult(RoundEngine.Outcome outcome, RuleSet.Weapon playerChoice, RuleSet.Weapon computerChoice) {
+            this.outcome = outcome;
+            this.playerChoice = playerChoice;
+            this.computerChoice = computerChoice;
         }
     }
 
-    private static class Firework {
-        double x, y;
-        double vy;
-        Color color;
-        boolean exploded = false;
-        java.util.List<Spark> sparks = new java.util.ArrayList<>();
-
-        Firework(double startX, double startY) {
-            this.x = startX;
-            this.y = startY;
-            this.vy = -(8 + Math.random() * 6);
-            int[] colors = { 0xFF6B6B, 0x4ECDC4, 0xFFE66D, 0xFF8A65, 0xAE73DC, 0xFF1493, 0x00CED1 };
-            this.color = new Color(colors[(int) (Math.random() * colors.length)]);
-        }
-
-        void update() {
-            if (!exploded) {
-                y += vy;
-                vy += 0.18; // gravity slowing ascent
-                if (vy >= 0) {
-                    explode();
-                }
-            } else {
-                for (int i = sparks.size() - 1; i >= 0; i--) {
-                    Spark s = sparks.get(i);
-                    s.update();
-                    if (!s.isAlive())
-                        sparks.remove(i);
-                }
+    // Cache für fertig skalierte Icons, Schlüssel (choice, buttonSize).
+    // Wird nur auf dem EDT benutzt; beim Ändern der Button-Größe werden alle
+    // Einträge verworfen. Die Bilder kommen aus dem Bündel auf dem Klassenpfad.
+    private static final class IconCache {
+        private final java.util.Map<String, ImageIcon> icons = new java.util.HashMap<>();
+        private IconBundle bundle;
+        private boolean bundleLoaded = false;
+        private int cachedButtonSize = -1;
+        private long hits = 0;
+        private long misses = 0;
+
+        ImageIcon get(String choice, int size) {
+            GameEvents.IconLoad event = new GameEvents.IconLoad();
+            event.begin();
+            if (size != cachedButtonSize) {
+                icons.clear();
+                cachedButtonSize = size;
             }
+            ImageIcon icon = icons.get(choice);
+            if (icon != null || icons.containsKey(choice)) {
+                hits++;
+                commit(event, choice, size, GameEvents.SOURCE_CACHE);
+                return icon;
+            }
+            misses++;
+            IconBundle b = bundle();
+            String origin = GameEvents.SOURCE_MISSING;
+            BufferedImage image = b != null ? b.read(choice, size) : null;
+            if (image != null) {
+                icon = new ImageIcon(image);
+                origin = b.contains(choice, size) ? GameEvents.SOURCE_BUNDLE : GameEvents.SOURCE_SCALED;
+            }
+            icons.put(choice, icon); // auch fehlende Bilder merken -> kein erneuter Zugriff
+            commit(event, choice, size, origin);
+            return icon;
         }
 
-        boolean isFinished() {
-            return exploded && sparks.isEmpty();
-        }
-
-        void explode() {
-            exploded = true;
-            int count = 18 + (int) (Math.random() * 36);
-            double speedBase = 2.5 + Math.random() * 3.5;
-            for (int i = 0; i < count; i++) {
-                double angle = Math.random() * Math.PI * 2;
-                double speed = speedBase * (0.6 + Math.random() * 1.4);
-                double vx = Math.cos(angle) * speed;
-                double vy = Math.sin(angle) * speed - 1.0; // slight upward bias
-                int life = 30 + (int) (Math.random() * 60);
-                int rr = color.getRed() + (int) (Math.random() * 40 - 20);
-                int gg = color.getGreen() + (int) (Math.random() * 40 - 20);
-                int bb = color.getBlue() + (int) (Math.random() * 40 - 20);
-                rr = Math.max(0, Math.min(255, rr));
-                gg = Math.max(0, Math.min(255, gg));
-                bb = Math.max(0, Math.min(255, bb));
-                Color c = new Color(rr, gg, bb);
-                sparks.add(new Spark(x, y, vx, vy, life, c));
+        private static void commit(GameEvents.IconLoad event, String choice, int size, String source) {
+            if (event.shouldCommit()) {
+                event.choice = choice;
+                event.size = size;
+                event.source = source;
+                event.commit();
             }
         }
 
-        void draw(Graphics2D g) {
-            if (!exploded) {
-                g.setColor(color);
-                g.fillOval((int) x - 3, (int) y - 3, 6, 6);
-            } else {
-                for (Spark s : sparks)
-                    s.draw(g);
+        void invalidate() {
+            icons.clear();
+            cachedButtonSize = -1;
+        }
+
+        @Override
+        public String toString() {
+            return "IconCache[hits=" + hits + ", misses=" + misses + ", icons=" + icons.size() + "]";
+        }
+
+        private IconBundle bundle() {
+            if (!bundleLoaded) {
+                bundle = IconBundle.load();
+                bundleLoaded = true;
             }
+            return bundle;
         }
     }
 
-    // fireworks list used for celebration
-    private static java.util.List<Firework> fireworks = new java.util.ArrayList<>();
+    private static final IconCache iconCache = new IconCache();
 
-    private static class GameResult {
-        String message;
-        String status; // "win", "lose", "draw"
-        String computerChoice;
+    private static ImageIcon loadImage(String choice) {
+        return iconCache.get(choice, weaponButtonSize());
+    }
 
-        GameResult(String message, String status, String computerChoice) {
-            this.message = message;
-            this.status = status;
-            this.computerChoice = computerChoice;
-        }
+    // Knopfgröße für den aktuellen Waffensatz: bei vielen Waffen kleiner, damit sie in Reihen passen
+    private static int weaponButtonSize() {
+        int n = rules.size();
+        return n <= Move.COUNT ? buttonSize : n <= 5 ? Math.min(buttonSize, 100) : Math.min(buttonSize, 56);
     }
 
-    private static ImageIcon loadImage(String choice) {
-        String[] possiblePaths = {
-                "images" + File.separator + choice + ".png",
-                ".." + File.separator + "images" + File.separator + choice + ".png",
-                new File(".").getAbsoluteFile().getParentFile().getAbsolutePath() + File.separator + "images"
-                        + File.separator + choice + ".png"
-        };
+    // Beschriftung für Waffen ohne Bild: Symbol, wenn die Schrift es kann, sonst der Name
+    private static String weaponLabel(RuleSet.Weapon weapon) {
+        if (weapon.symbol != null && WEAPON_LABEL_FONT.canDisplayUpTo(weapon.symbol) < 0)
+            return weapon.symbol;
+        return weapon.displayName;
+    }
 
-        for (String path : possiblePaths) {
-            File file = new File(path);
-            if (file.exists()) {
-                ImageIcon icon = new ImageIcon(file.getAbsolutePath());
-                // Skaliere basierend auf buttonSize
-                int size = (int) (buttonSize * 0.85);
-                return new ImageIcon(icon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
+    private static final Font WEAPON_LABEL_FONT = new Font("Dialog", Font.BOLD, 12);
+
+    // Beschriftung einer Waffe ohne Bild als TextSprite, Schrift so groß, wie sie
+    // ins Feld passt. Gemessen und gerendert wird nur, wenn sich Text oder
+    // Feldgröße ändern (anderer Satz, Größen-Spinner); sonst bleibt paintComponent
+    // ohne Allokationen. Ein Exemplar pro Zeichenstelle, nur auf dem EDT.
+    private static final class WeaponLabel {
+        private String text; // Vergleich per Referenz: weaponLabel liefert immer dieselben Strings
+        private int width = -1;
+        private int height = -1;
+        private TextSprite sprite;
+
+        void draw(Graphics2D g2, String text, int x, int y, int w, int h) {
+            if (sprite == null || text != this.text || w != width || h != height) {
+                this.text = text;
+                width = w;
+                height = h;
+                sprite = fit(text, w, h);
             }
+            sprite.drawInBox(g2, x, y, w, h);
         }
-        return null;
-    }
 
-    private static String getChoiceName(String choice) {
-        switch (choice.toLowerCase()) {
-            case "stein":
-                return "Stein";
-            case "papier":
-                return "Papier";
-            case "schere":
-                return "Schere";
-            default:
-                return choice;
+        private static TextSprite fit(String text, int w, int h) {
+            float size = text.codePointCount(0, text.length()) <= 2 ? h * 0.5f : h * 0.22f;
+            TextSprite sprite = new TextSprite(text, WEAPON_LABEL_FONT.deriveFont(size), Color.WHITE);
+            while (sprite.getWidth() > w - 6 && size > 8) {
+                size -= 1;
+                sprite = new TextSprite(text, WEAPON_LABEL_FONT.deriveFont(size), Color.WHITE);
+            }
+            return sprite;
         }
     }
 
-    private static GameResult spiele(String playerChoice) {
-        String[] options = { "stein", "papier", "schere" };
-        String computerChoice = options[(int) (Math.random() * 3)];
-
-        if (playerChoice.equals(computerChoice))
-            return new GameResult("Unentschieden!\nDu: " + playerChoice + " vs Computer: " + computerChoice, "draw",
-                    computerChoice);
-
-        boolean win = (playerChoice.equals("stein") && computerChoice.equals("schere")) ||
-                (playerChoice.equals("papier") && computerChoice.equals("stein")) ||
-                (playerChoice.equals("schere") && computerChoice.equals("papier"));
+    // Schreibt eine Runde gegen den Computer in die Chronik (-Dssp.history=false schaltet sie ab).
+    // Ungeschriebene Seiten der gemappten Datei schreibt das Betriebssystem auch
+    // nach einem Absturz zurück, deshalb kein force() pro Runde.
+    private static void recordRound(GameResult result) {
+        if (!rules.isClassic())
+            return; // die Chronik hat ein festes Format für Stein/Papier/Schere
+        if (!matchHistoryOpened) {
+            matchHistoryOpened = true;
+            if (!"false".equals(System.getProperty("ssp.history"))) {
+                try {
+                    matchHistory = MatchHistory.open(MatchHistory.defaultFile());
+                    if (matchHistory == null)
+                        System.err.println("Rundenchronik wird von einer anderen Instanz benutzt, ohne Chronik weiter");
+                } catch (IOException ex) {
+                    System.err.println("Rundenchronik nicht verfügbar: " + ex.getMessage());
+                }
+            }
+        }
+        if (matchHistory == null)
+            return;
+        try {
+            if (currentMatchId == 0)
+                currentMatchId = matchHistory.startMatch();
+            matchHistory.append(System.currentTimeMillis(), currentMatchId, Move.fromCode(result.playerChoice.code),
+                    Move.fromCode(result.computerChoice.code), result.outcome);
+        } catch (IOException ex) {
+            System.err.println("Rundenchronik abgeschaltet: " + ex.getMessage());
+            matchHistory = null;
+        }
+    }
 
-        String resultText = win ? "GEWONNEN!" : "VERLOREN!";
-        return win
-                ? new GameResult(resultText + "\nDu: " + playerChoice + " vs Computer: " + computerChoice, "win",
-                        computerChoice)
-                : new GameResult(resultText + "\nDu: " + playerChoice + " vs Computer: " + computerChoice, "lose",
-                        computerChoice);
+    private static GameResult spiele(RuleSet.Weapon playerChoice) {
+        GameEvents.Round event = new GameEvents.Round();
+        event.begin();
+        // der Computer legt sich fest, bevor er den Spielerzug kennt
+        RuleSet.Weapon computerChoice;
+        boolean smart = smartOpponentEnabled && rules.isClassic(); // die KI kennt nur die drei Waffen
+        if (smart)
+            computerChoice = rules.weapon(smartOpponent.choose().ordinal());
+        else
+            computerChoice = rules.randomWeapon(Randoms.get(Randoms.Subsystem.GAME));
+        RoundEngine.Outcome outcome = rules.resolve(playerChoice, computerChoice);
+        // immer mitlernen, damit die schlaue KI beim Einschalten schon Daten hat
+        if (rules.isClassic())
+            smartOpponent.record(Move.fromCode(playerChoice.code), outcome);
+        if (event.shouldCommit()) {
+            event.player = playerChoice.id.toUpperCase(java.util.Locale.ROOT);
+            event.computer = computerChoice.id.toUpperCase(java.util.Locale.ROOT);
+            event.outcome = outcome.name();
+            event.smartOpponent = smart;
+            event.commit();
+        }
+        return new GameResult(outcome, playerChoice, computerChoice);
     }
 
     private static class EmojiPanel extends JPanel {
-        private Timer konfettiTimer = null;
-        private int konfettiRemainingTicks = 0;
-        private boolean celebrationMode = false;
-        private java.util.List<Firework> panelFireworks = new java.util.ArrayList<>();
+        private AnimationClock.Handle konfettiAnimation = null;
+        // Konfetti-Physik; rechnet je nach Modus auf eigenem Thread oder über die Uhr.
+        // Erst bei der ersten Feier angelegt, siehe simulation()
+        private ParticleSimulation simulation = null;
         private JComponent gifOverlay = null;
-        private Timer gifRemoveTimer = null;
-        private String status = "";
-        private String playerChoice = "";
-        private String computerChoice = "";
+        private AnimationClock.Handle gifRemoval = null;
+        private RoundEngine.Outcome status = null;
+        private RuleSet.Weapon playerChoice = null;
+        private RuleSet.Weapon computerChoice = null;
         // animation settings
         private int battleFrame = 0;
-        private Timer battleTimer;
+        private float battleAlpha = 0f; // Interpolation zwischen zwei Kampf-Frames
+        private AnimationClock.Handle battleAnimation;
+        private GameEvents.BattleAnimation battleEvent; // JFR, von setBattle bis zum Ergebnis
+        private ActiveCelebration activeCelebration = null; // nur mit -Dssp.activeRendering
         public boolean showResult = false;
         private final int TOTAL_FRAMES = 60; // smooth ~60 frames
         private final int TIMER_DELAY_MS = 16; // ~60 FPS
         private ImageIcon playerImgIcon = null;
         private ImageIcon computerImgIcon = null;
+        // gezieltes Neuzeichnen: was im letzten Frame gezeichnet wurde, und Puffer
+        private static final double FULL_REPAINT_SHARE = 0.6; // darüber lohnt sich kein Ausschnitt
+        // Zeichenmittel einmal anlegen statt in jedem Frame
+        private static final BasicStroke DIVIDER_STROKE = new BasicStroke(3);
+        private static final Color DIVIDER_COLOR = new Color(220, 220, 220);
+        private static final Font RESULT_FONT = new Font("Arial", Font.BOLD, 36);
+        private final WeaponLabel playerLabel = new WeaponLabel(); // Waffen ohne Bild
+        private final WeaponLabel computerLabel = new WeaponLabel();
+        private static final TextSprite WIN_TEXT = new TextSprite("GEWONNEN!", RESULT_FONT, new Color(0, 200, 0));
+        private static final TextSprite LOSE_TEXT = new TextSprite("VERLOREN!", RESULT_FONT,
+                new Color(255, 100, 100));
+        private static final TextSprite DRAW_TEXT = new TextSprite("UNENTSCHIEDEN!", RESULT_FONT,
+                new Color(255, 200, 0));
+        private static final TextSprite IDLE_TEXT = new TextSprite("\u2753", new Font("Arial", Font.PLAIN, 80),
+                new Color(100, 100, 100));
+        private final Rectangle paintedRegion = new Rectangle();
+        private final Rectangle dirtyRegion = new Rectangle();
+        private final Rectangle battleRegion = new Rectangle();
 
         public EmojiPanel() {
             setPreferredSize(new Dimension(300, 200));
             setBackground(new Color(10, 10, 10));
+            setLayout(null); // einziges Kind ist der Canvas beim aktiven Rendern
+            // GIF-Frames immer passend zur aktuellen Panelgröße vorbereiten
+            addComponentListener(new java.awt.event.ComponentAdapter() {
+                @Override
+                public void componentResized(java.awt.event.ComponentEvent e) {
+                    if (simulation != null)
+                        simulation.setBounds(getWidth(), getHeight());
+                    if (activeCelebration != null) {
+                        // das GIF gehört bis zum Ende dem Render-Thread
+                        activeCelebration.getCanvas().setBounds(0, 0, getWidth(), getHeight());
+                        activeCelebration.setBackground(renderStaticLayer());
+                    } else if (celebrationGif != null) {
+                        celebrationGif.prepare(getWidth(), getHeight());
+                    }
+                }
+            });
         }
 
-        public void setBattle(String player, String computer) {
+        public void setBattle(RuleSet.Weapon player, RuleSet.Weapon computer) {
             playerChoice = player;
             computerChoice = computer;
             battleFrame = 0;
             showResult = false;
-            status = "";
+            status = null;
 
-            if (battleTimer != null) {
-                battleTimer.stop();
+            if (battleAnimation != null) {
+                battleAnimation.cancel();
             }
+            endBattleEvent(false);
+            battleEvent = new GameEvents.BattleAnimation();
+            battleEvent.begin();
 
             battleFrame = 0;
+            battleAlpha = 0f;
+            prepareCelebrationGif();
             // preload shake.png for animation phase
             playerImgIcon = loadImage("shake");
             computerImgIcon = loadImage("shake");
 
-            battleTimer = new Timer(TIMER_DELAY_MS, e -> {
-                battleFrame++;
-                if (battleFrame >= TOTAL_FRAMES) {
-                    battleTimer.stop();
-                    showResult = true;
-                    battleFrame = TOTAL_FRAMES;
-                    // Load actual choice images for result display
-                    playerImgIcon = loadImage(playerChoice);
-                    computerImgIcon = loadImage(computerChoice);
+            battleAnimation = animationClock.subscribe(TIMER_DELAY_MS, new AnimationClock.Subscriber() {
+                @Override
+                public boolean step() {
+                    battleFrame++;
+                    if (battleFrame >= TOTAL_FRAMES) {
+                        showResult = true;
+                        battleFrame = TOTAL_FRAMES;
+                        // Load actual choice images for result display
+                        playerImgIcon = loadImage(playerChoice.id);
+                        computerImgIcon = loadImage(computerChoice.id);
+                        endBattleEvent(true);
+                        repaint();
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public void render(double alpha) {
+                    battleAlpha = (float) alpha;
+                    repaintRegion(battleBounds(battleRegion));
                 }
-                repaint();
             });
-            battleTimer.start();
         }
 
-        public void setResult(String resultStatus) {
+        private void endBattleEvent(boolean completed) {
+            GameEvents.BattleAnimation event = battleEvent;
+            battleEvent = null;
+            if (event != null && event.shouldCommit()) {
+                event.player = playerChoice != null ? playerChoice.id.toUpperCase(java.util.Locale.ROOT) : null;
+                event.computer = computerChoice != null ? computerChoice.id.toUpperCase(java.util.Locale.ROOT) : null;
+                event.frames = battleFrame;
+                event.completed = completed;
+                event.commit();
+            }
+        }
+
+        // Jubel-GIF erst mit der ersten Runde öffnen und vorausdekodieren; beim
+        // Programmstart würden Decoder-Thread und Puffer mit dem ersten Bild konkurrieren
+        private void prepareCelebrationGif() {
+            if (!celebrationGifOpened) {
+                celebrationGifOpened = true;
+                celebrationGif = CelebrationGif.open(new File("celebration.gif"));
+                ParticleSimulation.prefillAtlasInBackground(); // Partikel-Sprites ebenso vorab
+            }
+            if (celebrationGif != null && activeCelebration == null) // sonst gehört es dem Render-Thread
+                celebrationGif.prepare(getWidth(), getHeight());
+        }
+
+        // Partikelpuffer (vier Partikelsysteme, zusammen knapp 1 MB) erst bei Bedarf
+        private ParticleSimulation simulation() {
+            if (simulation == null)
+                simulation = new ParticleSimulation(CONFETTI_TIMER_DELAY_MS, ParticleSimulation.backgroundByDefault(),
+                        this::celebrationFinished, frameGovernor);
+            return simulation;
+        }
+
+        public void setResult(RoundEngine.Outcome resultStatus) {
             status = resultStatus;
             // Only update status for this round; do not trigger confetti/fireworks here.
             // Full-window celebration is handled by `startCelebration()` which is
@@ -315,151 +381,263 @@ public class App {
         // Start a full-window celebration confetti + fireworks for
         // CELEBRATION_DURATION_MS
         public void startCelebration() {
-            if (konfettiTimer != null && konfettiTimer.isRunning()) {
-                konfettiTimer.stop();
-                konfettiTimer = null;
+            if (konfettiAnimation != null) {
+                konfettiAnimation.cancel();
+                konfettiAnimation = null;
             }
-
-            confetti.clear();
-            panelFireworks.clear();
-            celebrationMode = true;
+            if (activeCelebration != null)
+                activeCelebration.stop();
 
             int ticks = Math.max(1, CELEBRATION_DURATION_MS / CONFETTI_TIMER_DELAY_MS);
-            konfettiRemainingTicks = ticks;
-
             // spawn many particles across the whole panel
-            int count = Math.min(1200, Math.max(500, (getWidth() * getHeight()) / 800));
-            for (int i = 0; i < count; i++) {
-                double startX = Math.random() * getWidth();
-                double startY = Math.random() * (getHeight() * 0.6); // mostly top area
-                int customSize = 20 + (int) (Math.random() * 30);
-                int customLife = ticks + (int) (Math.random() * 40) - 20;
-                Confetti c = new Confetti(startX, startY, customLife, customSize, 60.0, 40.0);
-                confetti.add(c);
-            }
+            // scaled down by the governor on slow machines
+            float density = frameGovernor.density();
+            int count = (int) (Math.min(ParticleSystem.MAX_CONFETTI, Math.max(500, (getWidth() * getHeight()) / 800))
+                    * density);
+            int initialRockets = Math.max(2, (int) (Math.max(6, Math.min(16, getWidth() / 80)) * density));
+            ParticleSimulation simulation = simulation();
+            simulation.setBounds(getWidth(), getHeight());
+            simulation.start(ticks, count, initialRockets);
+
+            // Im Hintergrundmodus zeichnet die Uhr nur noch; gerechnet wird auf
+            // dem Simulationsthread, der EDT bleibt frei für Klicks.
+            konfettiAnimation = animationClock.subscribe(CONFETTI_TIMER_DELAY_MS, new AnimationClock.Subscriber() {
+                @Override
+                public boolean step() {
+                    if (simulation.isBackground())
+                        return simulation.isRunning();
+                    if (!simulation.step()) {
+                        celebrationFinished();
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public void render(double alpha) {
+                    simulation.setRenderAlpha((float) alpha);
+                    if (activeCelebration != null)
+                        return; // zeichnet der Render-Thread
+                    simulation.latest();
+                    repaintRegion(simulation.currentBounds());
+                }
+            });
 
-            // Immediately spawn a visible set of fireworks so the user notices rockets
-            int initialRockets = Math.max(6, Math.min(16, getWidth() / 80));
-            for (int r = 0; r < initialRockets; r++) {
-                double rx = Math.random() * Math.max(1, getWidth());
-                double ry = getHeight() * (0.9); // start very near bottom
-                panelFireworks.add(new Firework(rx, ry));
+            if (ActiveCelebration.isEnabled() && isShowing()) {
+                startActiveRendering();
+                return;
             }
 
-            konfettiTimer = new Timer(CONFETTI_TIMER_DELAY_MS, ev -> {
-                // Update confetti particles
-                for (int i = confetti.size() - 1; i >= 0; i--) {
-                    Confetti c = confetti.get(i);
-                    c.update();
-                    if (!c.isAlive()) {
-                        confetti.remove(i);
+            // Show the pre-decoded GIF as a full-window overlay inside the same window.
+            // Frames are decoded in the background; if none is ready yet we skip
+            // the overlay instead of blocking the EDT.
+            CelebrationGif gif = celebrationGif;
+            JRootPane root = SwingUtilities.getRootPane(this);
+            if (gif != null && gif.isReady() && root != null) {
+                JLayeredPane layered = root.getLayeredPane();
+                if (gifOverlay != null)
+                    layered.remove(gifOverlay);
+                if (gifRemoval != null)
+                    gifRemoval.cancel();
+
+                CelebrationGif.Overlay overlay = new CelebrationGif.Overlay(gif, AnimationClock.FRAME_DELAY_MS,
+                        CELEBRATION_DURATION_MS);
+                overlay.setBounds(0, 0, getWidth(), getHeight());
+                // add to layered pane so it appears above everything in the frame
+                layered.add(overlay, JLayeredPane.POPUP_LAYER);
+                layered.repaint();
+                gifOverlay = overlay;
+                gifRemoval = animationClock.subscribe(AnimationClock.FRAME_DELAY_MS, overlay);
+
+                // remove after celebration duration and pre-roll for the next win
+                animationClock.schedule(CELEBRATION_DURATION_MS, () -> {
+                    layered.remove(overlay);
+                    layered.repaint();
+                    if (gifOverlay == overlay) {
+                        gifOverlay = null;
+                        gif.rewind();
                     }
-                }
+                });
+            }
+        }
 
-                // Occasionally spawn large fireworks during celebration (higher rate)
-                if (celebrationMode && Math.random() < 0.25) {
-                    double fx = Math.random() * Math.max(1, getWidth());
-                    // start rockets near the bottom so they fly up visibly
-                    double fy = getHeight() * (0.85 + Math.random() * 0.12);
-                    panelFireworks.add(new Firework(fx, fy));
+        // Bricht einen laufenden Jubel ab (Reset, anderer Waffensatz, Online-Wechsel)
+        public void stopCelebration() {
+            if (konfettiAnimation != null) {
+                konfettiAnimation.cancel();
+                konfettiAnimation = null;
+            }
+            if (activeCelebration != null)
+                activeCelebration.stop(); // räumt danach in activeRenderingFinished auf
+            if (gifRemoval != null) {
+                gifRemoval.cancel();
+                gifRemoval = null;
+            }
+            if (gifOverlay != null) {
+                JRootPane root = SwingUtilities.getRootPane(this);
+                if (root != null) {
+                    root.getLayeredPane().remove(gifOverlay);
+                    root.getLayeredPane().repaint();
                 }
+                gifOverlay = null;
+                celebrationGif.rewind();
+            }
+            if (simulation != null)
+                simulation.stop(); // meldet celebrationFinished, das den leeren Stand zeichnet
+        }
 
-                // Update fireworks
-                for (int i = panelFireworks.size() - 1; i >= 0; i--) {
-                    Firework f = panelFireworks.get(i);
-                    f.update();
-                    if (f.isFinished())
-                        panelFireworks.remove(i);
-                }
+        private void celebrationFinished() {
+            if (activeCelebration != null)
+                return; // aufgeräumt wird in activeRenderingFinished
+            simulation.latest(); // leeren Schlussstand übernehmen
+            repaint();
+        }
 
-                repaint();
+        // Canvas über das Panel legen und den Render-Thread starten
+        private void startActiveRendering() {
+            CelebrationGif gif = celebrationGif != null && celebrationGif.isReady() ? celebrationGif : null;
+            if (gif != null)
+                gif.start(); // alter Render-Thread ist beendet, das GIF gehört wieder dem EDT
+            ActiveCelebration active = new ActiveCelebration(simulation, gif, frameGovernor,
+                    CELEBRATION_DURATION_MS, this::activeRenderingFinished);
+            activeCelebration = active; // vor renderStaticLayer: ohne Partikel zeichnen
+            Canvas canvas = active.getCanvas();
+            canvas.setBackground(getBackground());
+            canvas.setBounds(0, 0, getWidth(), getHeight());
+            add(canvas);
+            active.setBackground(renderStaticLayer());
+            active.start();
+        }
 
-                konfettiRemainingTicks--;
-                if (konfettiRemainingTicks <= 0) {
-                    // stop celebration
-                    konfettiTimer.stop();
-                    celebrationMode = false;
-                    confetti.clear();
-                    panelFireworks.clear();
-                    repaint();
-                }
-            });
-            konfettiTimer.setRepeats(true);
-            konfettiTimer.start();
+        // zurück zum normalen Swing-Panel
+        private void activeRenderingFinished(ActiveCelebration active) {
+            remove(active.getCanvas());
+            if (activeCelebration != active)
+                return; // schon durch eine neue Feier ersetzt
+            activeCelebration = null;
+            if (celebrationGif != null) {
+                celebrationGif.rewind(); // pre-roll for the next win
+                celebrationGif.prepare(getWidth(), getHeight());
+            }
+            simulation.latest();
+            repaint();
+        }
 
-            // Try to show the rendered GIF as a full-window overlay inside the same window
+        // Icons und Text des Ergebnisses ohne Partikel, als Hintergrund für den Canvas
+        private BufferedImage renderStaticLayer() {
+            BufferedImage image = IconBundle.createCompatibleImage(Math.max(1, getWidth()),
+                    Math.max(1, getHeight()));
+            Graphics2D g2 = image.createGraphics();
             try {
-                File gifFile = new File("celebration.gif");
-                if (gifFile.exists()) {
-                    ImageIcon rawIcon = new ImageIcon(gifFile.getAbsolutePath());
-                    // scale to panel size
-                    Image scaled = rawIcon.getImage().getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH);
-                    ImageIcon icon = new ImageIcon(scaled);
-
-                    JLabel gifLabel = new JLabel(icon);
-                    gifLabel.setOpaque(false);
-                    gifLabel.setBounds(0, 0, getWidth(), getHeight());
-
-                    // add to layered pane so it appears above everything in the frame
-                    JRootPane root = SwingUtilities.getRootPane(this);
-                    if (root != null) {
-                        JLayeredPane layered = root.getLayeredPane();
-                        layered.add(gifLabel, JLayeredPane.POPUP_LAYER);
-                        layered.revalidate();
-                        layered.repaint();
-                        gifOverlay = gifLabel;
-
-                        // schedule removal after celebration duration
-                        if (gifRemoveTimer != null && gifRemoveTimer.isRunning())
-                            gifRemoveTimer.stop();
-                        gifRemoveTimer = new Timer(CELEBRATION_DURATION_MS, e -> {
-                            try {
-                                layered.remove(gifLabel);
-                                layered.revalidate();
-                                layered.repaint();
-                            } catch (Exception ex) {
-                                // ignore
-                            }
-                        });
-                        gifRemoveTimer.setRepeats(false);
-                        gifRemoveTimer.start();
-                    }
-                }
-            } catch (Throwable ex) {
-                // best-effort: don't crash if GIF can't be shown
+                g2.setColor(getBackground());
+                g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                paintContent(g2);
+            } finally {
+                g2.dispose();
             }
+            return image;
+        }
+
+        /**
+         * Zeichnet nur neu, was sich seit dem letzten Frame geändert hat: die
+         * alte Fläche (zum Löschen) vereinigt mit der neuen. Deckt das mehr als
+         * FULL_REPAINT_SHARE des Panels ab, wird das ganze Panel neu gezeichnet.
+         */
+        private void repaintRegion(Rectangle region) {
+            dirtyRegion.setBounds(paintedRegion);
+            if (dirtyRegion.isEmpty())
+                dirtyRegion.setBounds(region);
+            else if (!region.isEmpty())
+                dirtyRegion.add(region);
+            paintedRegion.setBounds(region);
+            if (dirtyRegion.isEmpty())
+                return;
+            if ((long) dirtyRegion.width * dirtyRegion.height > FULL_REPAINT_SHARE * getWidth() * getHeight())
+                repaint();
+            else
+                repaint(dirtyRegion);
+        }
+
+        private double battleProgress() {
+            return Math.max(0.0, Math.min(1.0, (battleFrame + battleAlpha) / (double) TOTAL_FRAMES));
+        }
+
+        // accelerating shake; ab 75 % stehen die Icons still
+        private static int shakeOffset(double t) {
+            if (t >= 0.75)
+                return 0;
+            double shakePhase = t * t * 6;
+            int baseAmp = 40;
+            int amp = (int) (baseAmp * (1.0 + t));
+            return (int) (Math.sin(shakePhase * Math.PI) * amp);
+        }
+
+        // Bereich der beiden Kampf-Icons samt Trennlinie im aktuellen Frame
+        private Rectangle battleBounds(Rectangle out) {
+            int centerX = getWidth() / 2;
+            int centerY = getHeight() / 2;
+            double t = battleProgress();
+            int iconW = Math.max(playerImgIcon != null ? playerImgIcon.getIconWidth() : 0,
+                    computerImgIcon != null ? computerImgIcon.getIconWidth() : 0);
+            int iconH = Math.max(playerImgIcon != null ? playerImgIcon.getIconHeight() : 0,
+                    computerImgIcon != null ? computerImgIcon.getIconHeight() : 0);
+            int leftX = centerX - 130;
+            int rightX = centerX + 30;
+            out.setBounds(leftX, centerY - 50 + shakeOffset(t), rightX + iconW - leftX, iconH);
+            if (t < 0.75) {
+                // divider line, Strichstärke 3
+                out.add(centerX - 2, centerY - 42);
+                out.add(centerX + 3, centerY + 43);
+            }
+            return out;
         }
 
         @Override
         protected void paintComponent(Graphics g) {
+            GameEvents.Paint event = new GameEvents.Paint();
+            event.begin();
+            long started = System.nanoTime();
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, frameGovernor.antialiasing()
+                    ? RenderingHints.VALUE_ANTIALIAS_ON
+                    : RenderingHints.VALUE_ANTIALIAS_OFF);
+            String branch = paintContent(g2);
+            frameGovernor.recordPaint(started, System.nanoTime());
+            if (event.shouldCommit()) {
+                Rectangle clip = g.getClipBounds();
+                event.branch = branch;
+                event.clipWidth = clip != null ? clip.width : getWidth();
+                event.clipHeight = clip != null ? clip.height : getHeight();
+                event.commit();
+            }
+            StartupProbe.firstPaint();
+        }
 
+        // zeichnet den aktuellen Zustand und gibt den Zweig für das JFR-Event zurück
+        private String paintContent(Graphics2D g2) {
             int centerX = getWidth() / 2;
             int centerY = getHeight() / 2;
 
             // Battle animation: accelerating shake with PNGs → fade strengthen → result
             if (battleFrame > 0 && !showResult) {
-                double t = Math.max(0.0, Math.min(1.0, battleFrame / (double) TOTAL_FRAMES));
+                double t = battleProgress();
 
                 int leftX = centerX - 130;
                 int rightX = centerX + 30;
                 int baseY = centerY - 50;
 
                 if (t < 0.75) {
-                    double shakePhase = t * t * 6;
-                    int baseAmp = 40;
-                    int amp = (int) (baseAmp * (1.0 + t));
-                    int shakeY = (int) (Math.sin(shakePhase * Math.PI) * amp);
+                    int shakeY = shakeOffset(t);
 
                     if (playerImgIcon != null)
                         playerImgIcon.paintIcon(this, g2, leftX, baseY + shakeY);
                     if (computerImgIcon != null)
                         computerImgIcon.paintIcon(this, g2, rightX, baseY + shakeY);
 
-                    g2.setStroke(new BasicStroke(3));
-                    g2.setColor(new Color(220, 220, 220));
+                    g2.setStroke(DIVIDER_STROKE);
+                    g2.setColor(DIVIDER_COLOR);
                     g2.drawLine(centerX, centerY - 40, centerX, centerY + 40);
                 } else {
                     if (playerImgIcon != null)
@@ -468,63 +646,62 @@ public class App {
                         computerImgIcon.paintIcon(this, g2, rightX, baseY);
                 }
 
-                return;
+                return GameEvents.BRANCH_BATTLE;
             }
 
             // Result display
             if (showResult) {
-                ImageIcon playerImg = loadImage(playerChoice);
-                ImageIcon computerImg = loadImage(computerChoice);
-                int imgSize = (int) (buttonSize * 0.85);
+                ImageIcon playerImg = loadImage(playerChoice.id);
+                ImageIcon computerImg = loadImage(computerChoice.id);
+                int imgSize = (int) (weaponButtonSize() * 0.85);
                 int gap = 40;
                 int leftX = centerX - imgSize - gap / 2;
                 int rightX = centerX + gap / 2;
                 if (playerImg != null) {
                     playerImg.paintIcon(this, g2, leftX, centerY - 50);
+                } else {
+                    playerLabel.draw(g2, weaponLabel(playerChoice), leftX, centerY - 50, imgSize, imgSize);
                 }
                 if (computerImg != null) {
                     computerImg.paintIcon(this, g2, rightX, centerY - 50);
+                } else {
+                    computerLabel.draw(g2, weaponLabel(computerChoice), rightX, centerY - 50, imgSize, imgSize);
                 }
 
-                g2.setFont(new Font("Arial", Font.BOLD, 36));
-                FontMetrics fm = g2.getFontMetrics();
-
-                if (status.equals("win")) {
-                    g2.setColor(new Color(0, 200, 0));
-                    String text = "GEWONNEN!";
-                    int textWidth = fm.stringWidth(text);
-                    g2.drawString(text, centerX - textWidth / 2, centerY - 75);
-
-                    // draw confetti
-                    for (Confetti c : confetti)
-                        c.draw(g2);
-                    // draw fireworks
-                    for (Firework f : panelFireworks)
-                        f.draw(g2);
-
-                    return;
-                } else if (status.equals("lose")) {
-                    g2.setColor(new Color(255, 100, 100));
-                    String text = "VERLOREN!";
-                    int textWidth = fm.stringWidth(text);
-                    g2.drawString(text, centerX - textWidth / 2, centerY - 75);
+                if (status == RoundEngine.Outcome.WIN) {
+                    WIN_TEXT.drawCentered(g2, centerX, centerY - 75);
+
+                    // draw confetti and fireworks (beim aktiven Rendern auf dem Canvas)
+                    if (activeCelebration == null && simulation != null)
+                        simulation.current().draw(g2, simulation.interpolation());
+
+                    return GameEvents.BRANCH_RESULT;
+                } else if (status == RoundEngine.Outcome.LOSE) {
+                    LOSE_TEXT.drawCentered(g2, centerX, centerY - 75);
                 } else {
-                    g2.setColor(new Color(255, 200, 0));
-                    String text = "UNENTSCHIEDEN!";
-                    int textWidth = fm.stringWidth(text);
-                    g2.drawString(text, centerX - textWidth / 2, centerY - 75);
+                    DRAW_TEXT.drawCentered(g2, centerX, centerY - 75);
                 }
-                return;
+                return GameEvents.BRANCH_RESULT;
             }
 
             // Default state
-            g2.setFont(new Font("Arial", Font.PLAIN, 80));
-            g2.setColor(new Color(100, 100, 100));
-            g2.drawString("\u2753", centerX - 30, centerY + 35);
+            IDLE_TEXT.draw(g2, centerX - 30, centerY + 35);
+            return GameEvents.BRANCH_IDLE;
         }
     }
 
     public static void main(String[] args) {
+        StartupProbe.mainEntered();
+        // --seed=N (oder -Dssp.seed=N) macht Computerzüge und Effekte reproduzierbar
+        Randoms.configure(args);
+        // -Dssp.iconStats=true gibt beim Beenden die Trefferquote des Icon-Caches aus
+        if (Boolean.getBoolean("ssp.iconStats")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(iconCache)));
+        }
+        // -Dssp.frameStats=true gibt beim Beenden Qualitätsstufe und Framezeiten aus
+        if (Boolean.getBoolean("ssp.frameStats")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(frameGovernor)));
+        }
         try {
             SwingUtilities.invokeLater(() -> {
                 try {
@@ -538,6 +715,7 @@ public class App {
 
                     // Declare button panel and list before settings
                     JPanel buttonPanel = new JPanel();
+                    JPanel buttonArea = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0)); // Knöpfe, ggf. mit Bildlauf
                     java.util.List<JButton> buttonList = new java.util.ArrayList<>();
 
                     // Settings Panel
@@ -554,13 +732,9 @@ public class App {
                     sizeSpinner.setPreferredSize(new Dimension(60, 25));
                     sizeSpinner.addChangeListener(e -> {
                         buttonSize = (Integer) sizeSpinner.getValue();
+                        iconCache.invalidate();
                         // Update button sizes immediately
-                        for (JButton btn : buttonList) {
-                            btn.setPreferredSize(new Dimension(buttonSize, buttonSize));
-                            btn.setMaximumSize(new Dimension(buttonSize, buttonSize));
-                        }
-                        buttonPanel.revalidate();
-                        buttonPanel.repaint();
+                        layoutWeaponButtons(buttonArea, buttonPanel, buttonList);
                     });
 
                     JLabel borderLabel = new JLabel("Rahmen:");
@@ -584,11 +758,34 @@ public class App {
                         buttonPanel.repaint();
                     });
 
+                    JLabel opponentLabel = new JLabel("Gegner:");
+                    opponentLabel.setForeground(Color.WHITE);
+                    opponentLabel.setFont(new Font("Arial", Font.BOLD, 12));
+
+                    JCheckBox smartCheckbox = new JCheckBox("Schlaue KI");
+                    smartCheckbox.setBackground(new Color(20, 20, 20));
+                    smartCheckbox.setForeground(Color.WHITE);
+                    smartCheckbox.setSelected(smartOpponentEnabled);
+                    smartCheckbox.setEnabled(rules.isClassic());
+                    smartCheckbox.setToolTipText("Der Computer lernt deine Gewohnheiten und kontert sie");
+                    smartCheckbox.addActionListener(e -> smartOpponentEnabled = smartCheckbox.isSelected());
+
+                    JButton onlineButton = new JButton("Online spielen");
+                    onlineButton.setFont(new Font("Arial", Font.BOLD, 12));
+                    onlineButton.setFocusPainted(false);
+                    onlineButton.setToolTipText("Raum auf dem Spielserver erstellen oder beitreten (auch mit Browser-Spielern)");
+                    onlineButton.setEnabled(rules.isClassic()); // das Raum-Protokoll kennt nur die drei Waffen
+
                     settingsPanel.add(sizeLabel);
                     settingsPanel.add(sizeSpinner);
                     settingsPanel.add(Box.createHorizontalStrut(20));
                     settingsPanel.add(borderLabel);
                     settingsPanel.add(borderCheckbox);
+                    settingsPanel.add(Box.createHorizontalStrut(20));
+                    settingsPanel.add(opponentLabel);
+                    settingsPanel.add(smartCheckbox);
+                    settingsPanel.add(Box.createHorizontalStrut(20));
+                    settingsPanel.add(onlineButton);
 
                     mainPanel.add(settingsPanel);
                     mainPanel.add(Box.createVerticalStrut(10));
@@ -625,6 +822,11 @@ public class App {
                     computerScore.setFont(new Font("Arial", Font.BOLD, 48));
                     computerScore.setForeground(new Color(255, 100, 100)); // Red
 
+                    // geglättete Antwortzeit zum Server, nur im Online-Modus
+                    JLabel pingLabel = new JLabel();
+                    pingLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+                    pingLabel.setForeground(new Color(180, 180, 180));
+
                     scorePanel.add(Box.createHorizontalStrut(30));
                     scorePanel.add(playerLabel);
                     scorePanel.add(Box.createHorizontalStrut(10));
@@ -632,6 +834,8 @@ public class App {
                     scorePanel.add(Box.createHorizontalStrut(10));
                     scorePanel.add(playerScore);
                     scorePanel.add(Box.createHorizontalGlue());
+                    scorePanel.add(pingLabel);
+                    scorePanel.add(Box.createHorizontalGlue());
                     scorePanel.add(computerScore);
                     scorePanel.add(Box.createHorizontalStrut(10));
                     scorePanel.add(computerEmoji);
@@ -662,28 +866,38 @@ public class App {
                     choiceLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
                     choiceLabel.setForeground(Color.WHITE);
 
+                    // Auswahl des Waffensatzes neben "Deine Wahl"
+                    java.util.List<RuleSet> ruleSets = new java.util.ArrayList<>();
+                    for (String name : RuleSet.BUILT_IN) {
+                        try {
+                            RuleSet loaded = name.equals("classic") ? RuleSet.classic() : RuleSet.load(name);
+                            ruleSets.add(loaded.name.equals(rules.name) ? rules : loaded);
+                        } catch (IOException | IllegalArgumentException ex) {
+                            System.err.println("Regeln " + name + " nicht ladbar: " + ex.getMessage());
+                        }
+                    }
+                    if (!ruleSets.contains(rules))
+                        ruleSets.add(rules); // eigene Datei aus -Dssp.rules
+                    JComboBox<RuleSet> rulesBox = new JComboBox<>(ruleSets.toArray(new RuleSet[0]));
+                    rulesBox.setSelectedItem(rules);
+                    rulesBox.setFont(new Font("Arial", Font.PLAIN, 14));
+                    rulesBox.setToolTipText("Waffensatz und Regeln");
+
+                    JPanel choiceRow = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 0));
+                    choiceRow.setBackground(new Color(10, 10, 10));
+                    choiceRow.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
+                    choiceRow.add(choiceLabel);
+                    choiceRow.add(rulesBox);
+
                     mainPanel.add(Box.createVerticalStrut(30));
-                    mainPanel.add(choiceLabel);
+                    mainPanel.add(choiceRow);
                     mainPanel.add(Box.createVerticalStrut(20));
 
-                    // Button Panel with 3 buttons
-                    // Button Panel with 3 buttons
-                    buttonPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 20, 10));
+                    // Button Panel: ein Knopf pro Waffe des Satzes, siehe rebuildButtons
                     buttonPanel.setBackground(new Color(10, 10, 10));
+                    buttonArea.setBackground(new Color(10, 10, 10));
 
-                    JButton stein = createRoundButton("", "stein");
-                    JButton papier = createRoundButton("", "papier");
-                    JButton schere = createRoundButton("", "schere");
-
-                    buttonList.add(stein);
-                    buttonList.add(papier);
-                    buttonList.add(schere);
-
-                    buttonPanel.add(stein);
-                    buttonPanel.add(papier);
-                    buttonPanel.add(schere);
-
-                    mainPanel.add(buttonPanel);
+                    mainPanel.add(buttonArea);
 
                     // Bottom panel with points and reset
                     JPanel bottomPanel = new JPanel();
@@ -703,6 +917,27 @@ public class App {
                     winsCounter.setFont(new Font("Arial", Font.BOLD, 16));
                     winsCounter.setForeground(new Color(0, 200, 100));
 
+                    // Siegchance und erwartete Restlänge des Matches
+                    JLabel oddsLabel = new JLabel();
+                    oddsLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+                    oddsLabel.setForeground(new Color(180, 180, 180));
+                    Runnable updateOdds = () -> {
+                        int targetWins = (int) winsSpinner.getValue();
+                        int p = Integer.parseInt(playerScore.getText());
+                        int c = Integer.parseInt(computerScore.getText());
+                        // die Prognose gilt nur gegen den Zufallsgegner, nicht gegen die lernende KI
+                        boolean smart = smartOpponentEnabled && rules.isClassic();
+                        if (p >= targetWins || c >= targetWins || smart) {
+                            oddsLabel.setText("");
+                            return;
+                        }
+                        oddsLabel.setText(String.format("Siegchance %.0f%% \u00b7 noch ~%.1f Runden",
+                                odds.winProbability(p, c, targetWins) * 100,
+                                odds.expectedRemainingRounds(p, c, targetWins)));
+                    };
+                    updateOdds.run();
+                    smartCheckbox.addActionListener(e -> updateOdds.run());
+
                     JButton reset = new JButton("Reset");
                     reset.setFont(new Font("Arial", Font.BOLD, 14));
                     reset.setForeground(Color.WHITE);
@@ -719,6 +954,8 @@ public class App {
                     bottomPanel.add(winsSpinner);
                     bottomPanel.add(Box.createHorizontalStrut(15));
                     bottomPanel.add(winsCounter);
+                    bottomPanel.add(Box.createHorizontalStrut(15));
+                    bottomPanel.add(oddsLabel);
                     bottomPanel.add(Box.createHorizontalStrut(30));
                     bottomPanel.add(reset);
                     bottomPanel.add(Box.createHorizontalGlue());
@@ -727,33 +964,41 @@ public class App {
                     mainPanel.add(bottomPanel);
                     mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 20, 10));
 
-                    ActionListener listener = e -> {
-                        JButton btn = (JButton) e.getSource();
-                        String cmd = btn.getName().toLowerCase();
-
-                        GameResult gameResult = spiele(cmd);
-                        String computerChoice = gameResult.computerChoice;
+                    // Kampf-Animation und Auswertung einer Runde, offline wie online
+                    java.util.function.Consumer<GameResult> playRound = gameResult -> {
+                        RuleSet.Weapon playerChoice = gameResult.playerChoice;
+                        RuleSet.Weapon computerChoice = gameResult.computerChoice;
 
                         // Start battle animation
-                        emojiPanel.setBattle(cmd, computerChoice);
+                        emojiPanel.setBattle(playerChoice, computerChoice);
 
                         // Update result after animation completes (1500ms)
-                        Timer resultTimer = new Timer(1500, evt -> {
-                            boolean playerWon = gameResult.status.equals("win");
+                        animationClock.schedule(1500, () -> {
+                            boolean playerWon = gameResult.outcome == RoundEngine.Outcome.WIN;
 
                             // Update scores
                             int playerScoreVal = Integer.parseInt(playerScore.getText());
                             int computerScoreVal = Integer.parseInt(computerScore.getText());
 
-                            if (playerWon) {
+                            if (onlineWins >= 0) {
+                                // der Spielserver zählt verbindlich
+                                playerScore.setText(String.valueOf(onlineWins));
+                                computerScore.setText(String.valueOf(onlineLosses));
+                            } else if (playerWon) {
                                 playerScore.setText(String.valueOf(playerScoreVal + 1));
-                            } else if (gameResult.status.equals("lose")) {
+                            } else if (gameResult.outcome == RoundEngine.Outcome.LOSE) {
                                 computerScore.setText(String.valueOf(computerScoreVal + 1));
                             }
 
-                            emojiPanel.setResult(gameResult.status);
+                            if (matchHistory != null)
+                                playerScore.setToolTipText("Insgesamt: " + matchHistory.summary());
+                            emojiPanel.setResult(gameResult.outcome);
                             emojiPanel.showResult = true;
                             emojiPanel.repaint();
+                            // bei unbekannteren Sätzen dazuschreiben, warum (z.B. "Spock verdampft Stein")
+                            String reason = rules.describe(playerChoice, computerChoice);
+                            if (!rules.isClassic())
+                                instructions.setText(reason != null ? reason : "Unentschieden - nochmal!");
 
                             // Check win condition
                             int targetWins = (int) winsSpinner.getValue();
@@ -763,46 +1008,268 @@ public class App {
                             if (playerScoreVal >= targetWins) {
                                 instructions.setText("DU HAST GEWONNEN!!!");
                                 instructions.setForeground(new Color(0, 200, 0));
-                                stein.setEnabled(false);
-                                papier.setEnabled(false);
-                                schere.setEnabled(false);
+                                for (JButton b : buttonList)
+                                    b.setEnabled(false);
                                 // Start a full-window celebration for the overall win
                                 emojiPanel.startCelebration();
                             } else if (computerScoreVal >= targetWins) {
                                 instructions.setText("DU HAST VERLOREN!");
                                 instructions.setForeground(new Color(255, 100, 100));
-                                stein.setEnabled(false);
-                                papier.setEnabled(false);
-                                schere.setEnabled(false);
+                                for (JButton b : buttonList)
+                                    b.setEnabled(false);
+                            } else if (networkMatch != null && opponentPresent) {
+                                // online bleibt die Wahl bis zur Auflösung gesperrt
+                                for (JButton b : buttonList)
+                                    b.setEnabled(true);
                             }
 
                             int currentWins = Integer.parseInt(winsCounter.getText().split(" / ")[0]);
                             winsCounter.setText(Math.max(playerScoreVal, computerScoreVal) + " / " + targetWins);
+                            updateOdds.run();
                         });
-                        resultTimer.setRepeats(false);
-                        resultTimer.start();
                     };
 
-                    stein.addActionListener(listener);
-                    papier.addActionListener(listener);
-                    schere.addActionListener(listener);
+                    // online: Runde abschließen, entschieden vom Spielserver oder (Relay) lokal
+                    java.util.function.Consumer<GameResult> playOnlineRound = gameResult -> {
+                        onlineOwnMove = null;
+                        onlineOpponentMove = null;
+                        instructions.setText("Waehle deine Waffe!");
+                        playRound.accept(gameResult); // nicht in die Chronik, die kennt nur Runden gegen den Computer
+                    };
+
+                    // Relay: sobald beide Züge da sind, lokal mit denselben Regeln entscheiden.
+                    // Der Spielserver schickt sein result gleich nach dem Zug des Gegners,
+                    // hat er das einmal getan, wird hier nichts mehr entschieden.
+                    Runnable resolveOnlineRound = () -> {
+                        if (onlineOwnMove == null || onlineOpponentMove == null || networkMatch.serverDecides())
+                            return;
+                        playOnlineRound.accept(new GameResult(RoundEngine.resolve(onlineOwnMove, onlineOpponentMove),
+                                rules.weapon(onlineOwnMove.ordinal()), rules.weapon(onlineOpponentMove.ordinal())));
+                    };
+
+                    ActionListener listener = e -> {
+                        JButton btn = (JButton) e.getSource();
+                        RuleSet.Weapon playerChoice = rules.byId(btn.getName());
+                        if (networkMatch != null) {
+                            onlineOwnMove = Move.fromCode(playerChoice.code); // online immer klassisch
+                            networkMatch.move(onlineOwnMove);
+                            for (JButton b : buttonList)
+                                b.setEnabled(false);
+                            if (onlineOpponentMove == null)
+                                instructions.setText("Warte auf den Gegner...");
+                            resolveOnlineRound.run();
+                            return;
+                        }
+
+                        GameResult gameResult = spiele(playerChoice);
+                        recordRound(gameResult);
+                        playRound.accept(gameResult);
+                    };
+
+                    // Knöpfe für den aktuellen Waffensatz neu anlegen
+                    Runnable rebuildButtons = () -> {
+                        buttonPanel.removeAll();
+                        buttonList.clear();
+                        for (int i = 0; i < rules.size(); i++) {
+                            RuleSet.Weapon weapon = rules.weapon(i);
+                            JButton button = createRoundButton(weaponLabel(weapon), weapon.id);
+                            button.setToolTipText(weapon.displayName);
+                            if (roundedButtons)
+                                button.setBorder(BorderFactory.createRaisedBevelBorder());
+                            button.addActionListener(listener);
+                            buttonList.add(button);
+                            buttonPanel.add(button);
+                        }
+                        layoutWeaponButtons(buttonArea, buttonPanel, buttonList);
+                    };
+                    rebuildButtons.run();
 
-                    reset.addActionListener(e -> {
+                    Runnable resetMatch = () -> {
+                        emojiPanel.stopCelebration();
+                        currentMatchId = 0; // die Chronik behält alle Runden, das nächste Match bekommt eine neue ID
                         playerScore.setText("0");
                         computerScore.setText("0");
                         int targetWins = (int) winsSpinner.getValue();
                         winsCounter.setText("0 / " + targetWins);
+                        updateOdds.run();
                         instructions.setText("Waehle deine Waffe!");
                         instructions.setForeground(Color.WHITE);
-                        stein.setEnabled(true);
-                        papier.setEnabled(true);
-                        schere.setEnabled(true);
+                        boolean canMove = networkMatch == null || opponentPresent && onlineOwnMove == null;
+                        for (JButton b : buttonList)
+                            b.setEnabled(canMove);
+                    };
+                    reset.addActionListener(e -> resetMatch.run());
+
+                    rulesBox.addActionListener(e -> {
+                        RuleSet selected = (RuleSet) rulesBox.getSelectedItem();
+                        if (selected == null || selected == rules)
+                            return;
+                        rules = selected;
+                        odds = MatchOdds.uniform(rules.size());
+                        iconCache.invalidate(); // Knopfgröße hängt am Satz
+                        smartCheckbox.setEnabled(rules.isClassic());
+                        onlineButton.setEnabled(rules.isClassic());
+                        rebuildButtons.run();
+                        resetMatch.run();
+                    });
+
+                    // zurück zum Spiel gegen den Computer (Verbindung ist schon zu)
+                    java.util.function.Consumer<String> leaveOnline = reason -> {
+                        networkMatch = null;
+                        opponentPresent = false;
+                        onlineOwnMove = null;
+                        onlineOpponentMove = null;
+                        onlineWins = -1;
+                        onlineLosses = -1;
+                        onlineButton.setText("Online spielen");
+                        computerLabel.setText("COMPUTER");
+                        rulesBox.setEnabled(true);
+                        pingLabel.setText("");
+                        pingLabel.setToolTipText(null);
+                        resetMatch.run();
+                        if (reason != null) {
+                            instructions.setText(reason);
+                            instructions.setForeground(new Color(255, 100, 100));
+                        }
+                    };
+
+                    onlineButton.addActionListener(e -> {
+                        if (networkMatch != null) {
+                            networkMatch.close();
+                            leaveOnline.accept(null);
+                            return;
+                        }
+                        String server = (String) JOptionPane.showInputDialog(frame, "Server-Adresse:", "Online spielen",
+                                JOptionPane.PLAIN_MESSAGE, null, null,
+                                System.getProperty("ssp.server", NetworkMatch.DEFAULT_SERVER));
+                        if (server == null || server.isBlank())
+                            return;
+                        Object[] options = { "Raum erstellen", "Raum beitreten", "Abbrechen" };
+                        int mode = JOptionPane.showOptionDialog(frame, "Neuen Raum erstellen oder mit Code beitreten?",
+                                "Online spielen", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null,
+                                options, options[0]);
+                        if (mode != 0 && mode != 1)
+                            return;
+                        String joinCode = null;
+                        if (mode == 1) {
+                            joinCode = JOptionPane.showInputDialog(frame, "Raumcode:", "Raum beitreten",
+                                    JOptionPane.PLAIN_MESSAGE);
+                            if (joinCode == null || joinCode.isBlank())
+                                return;
+                        }
+                        java.net.URI uri;
+                        try {
+                            uri = java.net.URI.create(server.trim());
+                        } catch (IllegalArgumentException ex) {
+                            JOptionPane.showMessageDialog(frame, "Ungültige Adresse: " + server, "Online spielen",
+                                    JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+
+                        String code = joinCode;
+                        networkMatch = NetworkMatch.connect(uri, new NetworkMatch.Listener() {
+                            @Override
+                            public void connected() {
+                                instructions.setText("Verbunden, " + (code != null ? "trete Raum " + code + " bei..."
+                                        : "erstelle Raum..."));
+                                if (code != null)
+                                    networkMatch.join(code);
+                                else
+                                    networkMatch.create();
+                            }
+
+                            @Override
+                            public void created(String room) {
+                                instructions.setText("Raum " + room + " - warte auf Gegner...");
+                            }
+
+                            @Override
+                            public void joined(String room, boolean present) {
+                                if (present)
+                                    opponentJoined();
+                                else
+                                    instructions.setText("Raum " + room + " - warte auf Gegner...");
+                            }
+
+                            @Override
+                            public void opponentJoined() {
+                                opponentPresent = true;
+                                onlineWins = -1; // der Server zählt für jeden neuen Gegner von vorn
+                                onlineLosses = -1;
+                                resetMatch.run();
+                            }
+
+                            @Override
+                            public void opponentMoved(Move move) {
+                                if (!opponentPresent)
+                                    return;
+                                onlineOpponentMove = move; // bleibt verdeckt, bis der eigene Zug raus ist
+                                resolveOnlineRound.run();
+                            }
+
+                            @Override
+                            public void roundResult(RoundEngine.Outcome outcome, Move move, Move opponentMove,
+                                    int wins, int losses) {
+                                if (!opponentPresent)
+                                    return;
+                                onlineWins = wins;
+                                onlineLosses = losses;
+                                if (onlineOwnMove == null) {
+                                    // erste Runde: der Zug kam vor dem ersten result und wurde schon
+                                    // lokal gespielt, gleiches Ergebnis; nur den Stand übernehmen
+                                    if (emojiPanel.showResult) {
+                                        playerScore.setText(String.valueOf(wins));
+                                        computerScore.setText(String.valueOf(losses));
+                                    }
+                                    return;
+                                }
+                                playOnlineRound.accept(new GameResult(outcome, rules.weapon(move.ordinal()),
+                                        rules.weapon(opponentMove.ordinal())));
+                            }
+
+                            @Override
+                            public void opponentLeft() {
+                                opponentPresent = false;
+                                onlineOwnMove = null;
+                                onlineOpponentMove = null;
+                                resetMatch.run();
+                                instructions.setText("Gegner ist gegangen - Raum " + networkMatch.room()
+                                        + " wartet auf den nächsten...");
+                            }
+
+                            @Override
+                            public void error(String message) {
+                                if (networkMatch.room() == null) {
+                                    networkMatch.close(); // Raum gibt es nicht oder er ist voll
+                                    leaveOnline.accept("Online: " + message);
+                                } else {
+                                    instructions.setText("Server: " + message);
+                                }
+                            }
+
+                            @Override
+                            public void latency(double rttMillis, double smoothedMillis) {
+                                pingLabel.setText(String.format("Ping %.0f ms", smoothedMillis));
+                                pingLabel.setToolTipText(String.format("Letzte Messung %.1f ms", rttMillis));
+                            }
+
+                            @Override
+                            public void disconnected(String reason) {
+                                leaveOnline.accept("Online: " + reason);
+                            }
+                        });
+                        onlineButton.setText("Offline spielen");
+                        computerLabel.setText("GEGNER");
+                        rulesBox.setEnabled(false); // online wird immer klassisch gespielt
+                        resetMatch.run();
+                        instructions.setText("Verbinde mit " + uri + "...");
                     });
 
                     winsSpinner.addChangeListener(e -> {
                         int targetWins = (int) winsSpinner.getValue();
                         int currentWins = Integer.parseInt(winsCounter.getText().split(" / ")[0]);
                         winsCounter.setText(currentWins + " / " + targetWins);
+                        updateOdds.run();
                     });
 
                     frame.getContentPane().add(mainPanel);
@@ -820,8 +1287,47 @@ public class App {
         }
     }
 
+    /**
+     * Ordnet die Waffenknöpfe an: bis fünf in einer Reihe, bei größeren
+     * Sätzen (RPS-101) in einem Raster mit Bildlauf, damit das Fenster nicht
+     * mit der Zahl der Waffen wächst.
+     */
+    private static void layoutWeaponButtons(JPanel area, JPanel panel, java.util.List<JButton> buttons) {
+        int size = weaponButtonSize();
+        for (JButton btn : buttons) {
+            btn.setPreferredSize(new Dimension(size, size));
+            btn.setMaximumSize(new Dimension(size, size));
+        }
+        area.removeAll();
+        if (buttons.size() <= 5) {
+            panel.setLayout(new FlowLayout(FlowLayout.CENTER, 20, 10));
+            area.add(panel);
+        } else {
+            int gap = 6;
+            panel.setLayout(new GridLayout(0, BUTTON_GRID_COLUMNS, gap, gap));
+            panel.setBorder(BorderFactory.createEmptyBorder(gap, gap, gap, gap));
+            JScrollPane scroll = new JScrollPane(panel, ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                    ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+            scroll.setBorder(BorderFactory.createEmptyBorder());
+            scroll.getViewport().setBackground(new Color(10, 10, 10));
+            scroll.getVerticalScrollBar().setUnitIncrement(size / 2);
+            Dimension grid = panel.getPreferredSize();
+            int visible = BUTTON_GRID_ROWS_VISIBLE * (size + gap) + gap;
+            scroll.setPreferredSize(new Dimension(grid.width + scroll.getVerticalScrollBar().getPreferredSize().width,
+                    Math.min(grid.height, visible)));
+            area.add(scroll);
+        }
+        area.revalidate();
+        area.repaint();
+    }
+
+    private static final Color BUTTON_COLOR = new Color(70, 70, 70);
+    private static final Color BUTTON_HOVER_COLOR = new Color(100, 100, 100);
+
     private static JButton createRoundButton(String emoji, String name) {
         JButton button = new JButton() {
+            private final WeaponLabel label = new WeaponLabel();
+
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
@@ -831,29 +1337,32 @@ public class App {
                 ImageIcon img = loadImage(name);
                 if (img != null) {
                     img.paintIcon(this, g2, 10, 10);
+                } else if (!emoji.isEmpty()) {
+                    label.draw(g2, emoji, 0, 0, getWidth(), getHeight()); // Waffe ohne Bild
                 }
             }
         };
         button.setName(name);
         button.setForeground(Color.BLACK);
-        button.setBackground(new Color(70, 70, 70));
+        button.setBackground(BUTTON_COLOR);
         button.setFocusPainted(false);
         button.setBorderPainted(true);
         button.setOpaque(true);
-        button.setPreferredSize(new Dimension(buttonSize, buttonSize));
-        button.setMaximumSize(new Dimension(buttonSize, buttonSize));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        int size = weaponButtonSize();
+        button.setPreferredSize(new Dimension(size, size));
+        button.setMaximumSize(new Dimension(size, size));
+        button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 
         // Standardmäßig ohne Rahmen
         button.setBorder(BorderFactory.createEmptyBorder());
 
         button.addMouseListener(new java.awt.event.MouseAdapter() {
             public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(new Color(100, 100, 100));
+                button.setBackground(BUTTON_HOVER_COLOR);
             }
 
             public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(new Color(70, 70, 70));
+                button.setBackground(BUTTON_COLOR);
             }
         });
         return button;
@@ -0,0 +1,278 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JComponent;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Das Jubel-GIF, im Hintergrund dekodiert.
+ *
+ * Ein Hintergrund-Thread liest die GIF-Frames mit ImageIO, setzt sie gemäß
+ * Disposal-Methode zusammen, skaliert sie einmal auf die aktuelle Panelgröße
+ * und legt sie in einen Ringpuffer fester Größe. Das ganze GIF passt nicht in
+ * den Speicher (375 Frames à 700x750), deshalb wird beim Start nur der
+ * Puffer gefüllt und während der Wiedergabe weiter vorausdekodiert. Die
+ * Puffergröße richtet sich nach {@code -Dssp.gifCacheMb} (Standard 32 MB).
+ *
+ * {@link #prepare}, {@link #start}, {@link #frameAt} und {@link #rewind} nur auf dem EDT
+ * aufrufen; während aktiven Renderns holt stattdessen der Render-Thread von
+ * {@link ActiveCelebration} die Frames, und der EDT fasst das GIF bis zum Ende
+ * nicht an.
+ */
+final class CelebrationGif {
+    static final long DEFAULT_MAX_BYTES = 32L << 20;
+    private static final int MAX_SLOTS = 64;
+
+    private static final class Frame {
+        final BufferedImage image;
+        final int startMs;
+
+        Frame(BufferedImage image, int startMs) {
+            this.image = image;
+            this.startMs = startMs;
+        }
+    }
+
+    private final File file;
+    private final long maxBytes;
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "celebration-gif");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    // gehören zur aktuellen Dekodierung; werden bei neuer Größe ersetzt
+    private BlockingQueue<Frame> ready;
+    private BlockingQueue<BufferedImage> free;
+    private Future<?> task;
+    private int width = -1;
+    private int height = -1;
+    private Frame current;
+    private boolean played; // seit dem letzten Neustart schon über Frame 0 hinaus abgespielt
+
+    CelebrationGif(File file, long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Lädt das GIF, falls vorhanden; Puffergröße aus -Dssp.gifCacheMb. */
+    static CelebrationGif open(File file) {
+        if (!file.exists())
+            return null;
+        long maxBytes = Long.getLong("ssp.gifCacheMb", DEFAULT_MAX_BYTES >> 20) << 20;
+        return new CelebrationGif(file, maxBytes);
+    }
+
+    /** Beginnt (erneut) mit dem Vorausdekodieren für die angegebene Größe. */
+    void prepare(int w, int h) {
+        if (w <= 0 || h <= 0)
+            return;
+        if (w == width && h == height && task != null)
+            return;
+        restart(w, h);
+    }
+
+    /** Zurück zum ersten Frame, damit der nächste Jubel sofort starten kann. */
+    void rewind() {
+        if (width > 0)
+            restart(width, height);
+    }
+
+    /**
+     * Beginnt eine neue Wiedergabe. Lief das GIF gerade noch (neuer Jubel,
+     * bevor der alte vorbei ist), geht es zurück auf Frame 0, statt mitten im
+     * Puffer weiterzuspielen.
+     */
+    void start() {
+        if (played)
+            rewind();
+    }
+
+    /** true, sobald der erste Frame für die aktuelle Größe bereitliegt. */
+    boolean isReady() {
+        return current != null || (ready != null && !ready.isEmpty());
+    }
+
+    /**
+     * Frame zum Zeitpunkt elapsedMs seit Start der Wiedergabe. Ältere Frames
+     * werden freigegeben; ist der Dekoder im Rückstand, bleibt der letzte Frame
+     * stehen.
+     */
+    BufferedImage frameAt(int elapsedMs) {
+        if (ready == null)
+            return null;
+        if (elapsedMs > 0)
+            played = true;
+        Frame next;
+        while ((next = ready.peek()) != null && (current == null || next.startMs <= elapsedMs)) {
+            ready.poll();
+            if (current != null)
+                free.offer(current.image);
+            current = next;
+        }
+        return current == null ? null : current.image;
+    }
+
+    private void restart(int w, int h) {
+        if (task != null)
+            task.cancel(true);
+        width = w;
+        height = h;
+        current = null;
+        played = false;
+        int slots = (int) Math.max(2, Math.min(MAX_SLOTS, maxBytes / (4L * w * h)));
+        BlockingQueue<Frame> readyQueue = new ArrayBlockingQueue<>(slots);
+        // Ring + aktueller Frame + Frame in Arbeit
+        BlockingQueue<BufferedImage> freeQueue = new ArrayBlockingQueue<>(slots + 2);
+        ready = readyQueue;
+        free = freeQueue;
+        task = decoder.submit(() -> decode(w, h, readyQueue, freeQueue));
+    }
+
+    private void decode(int w, int h, BlockingQueue<Frame> readyQueue, BlockingQueue<BufferedImage> freeQueue) {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+        if (!readers.hasNext())
+            return;
+        ImageReader reader = readers.next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            reader.setInput(in, true, false);
+            BufferedImage canvas = null;
+            BufferedImage previous = null;
+            int timeMs = 0;
+            for (int i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                BufferedImage raw;
+                try {
+                    raw = reader.read(i);
+                } catch (IndexOutOfBoundsException end) {
+                    break; // letzter Frame gelesen
+                }
+                IIOMetadataNode meta = (IIOMetadataNode) reader.getImageMetadata(i)
+                        .getAsTree("javax_imageio_gif_image_1.0");
+                IIOMetadataNode descriptor = child(meta, "ImageDescriptor");
+                IIOMetadataNode control = child(meta, "GraphicControlExtension");
+                int left = intAttr(descriptor, "imageLeftPosition");
+                int top = intAttr(descriptor, "imageTopPosition");
+                int delayMs = control != null ? intAttr(control, "delayTime") * 10 : 0;
+                String disposal = control != null ? control.getAttribute("disposalMethod") : "none";
+
+                if (canvas == null) {
+                    canvas = new BufferedImage(Math.max(raw.getWidth() + left, reader.getWidth(0)),
+                            Math.max(raw.getHeight() + top, reader.getHeight(0)), BufferedImage.TYPE_INT_ARGB);
+                }
+                if ("restoreToPrevious".equals(disposal)) {
+                    if (previous == null)
+                        previous = new BufferedImage(canvas.getWidth(), canvas.getHeight(),
+                                BufferedImage.TYPE_INT_ARGB);
+                    copy(canvas, previous);
+                }
+
+                Graphics2D g = canvas.createGraphics();
+                g.drawImage(raw, left, top, null);
+                g.dispose();
+
+                BufferedImage target = freeQueue.poll();
+                if (target == null)
+                    target = IconBundle.createCompatibleImage(w, h);
+                Graphics2D tg = target.createGraphics();
+                tg.setComposite(AlphaComposite.Src);
+                tg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                tg.drawImage(canvas, 0, 0, w, h, null);
+                tg.dispose();
+                readyQueue.put(new Frame(target, timeMs)); // wartet, solange der Ring voll ist
+
+                // Verzögerungen unter 20 ms behandeln Browser als 100 ms, hier genauso
+                timeMs += delayMs >= 20 ? delayMs : 100;
+                if ("restoreToBackgroundColor".equals(disposal)) {
+                    Graphics2D cg = canvas.createGraphics();
+                    cg.setComposite(AlphaComposite.Clear);
+                    cg.fillRect(left, top, raw.getWidth(), raw.getHeight());
+                    cg.dispose();
+                } else if ("restoreToPrevious".equals(disposal)) {
+                    copy(previous, canvas);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // neue Größe oder Rewind
+        } catch (Exception ex) {
+            System.err.println("Jubel-GIF konnte nicht gelesen werden: " + ex.getMessage());
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static void copy(BufferedImage from, BufferedImage to) {
+        Graphics2D g = to.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(from, 0, 0, null);
+        g.dispose();
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (org.w3c.dom.Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeName().equals(name))
+                return (IIOMetadataNode) n;
+        }
+        return null;
+    }
+
+    private static int intAttr(IIOMetadataNode node, String name) {
+        if (node == null)
+            return 0;
+        String value = node.getAttribute(name);
+        return value == null || value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+
+    /**
+     * Leichtgewichtige Ebene, die das GIF im Takt der Animationsuhr abspielt
+     * und sich nach durationMs selbst abmeldet.
+     */
+    static final class Overlay extends JComponent implements AnimationClock.Subscriber {
+        private static final long serialVersionUID = 1L;
+
+        private final CelebrationGif gif;
+        private final int stepMs;
+        private final int durationMs;
+        private int elapsedMs = 0;
+        private BufferedImage frame;
+
+        Overlay(CelebrationGif gif, int stepMs, int durationMs) {
+            this.gif = gif;
+            this.stepMs = stepMs;
+            this.durationMs = durationMs;
+            setOpaque(false);
+            gif.start();
+            frame = gif.frameAt(0);
+        }
+
+        @Override
+        public boolean step() {
+            elapsedMs += stepMs;
+            return elapsedMs < durationMs;
+        }
+
+        @Override
+        public void render(double alpha) {
+            BufferedImage next = gif.frameAt(elapsedMs);
+            if (next != frame) {
+                frame = next;
+                repaint();
+            }
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (frame != null)
+                g.drawImage(frame, 0, 0, null);
+        }
+    }
+}
@@ -1,24 +1,241 @@
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
+/**
+ * Erzeugt die Bilder des Spiels: die Originale (falls sie fehlen, als
+ * einfache Strichzeichnung) und daraus das Bildbündel mit allen Knopfgrößen
+ * (siehe {@link IconBundle}).
+ *
+ * Originale dekodieren und Varianten skalieren/kodieren läuft parallel auf
+ * einem Fork-Join-Pool. Über alle Eingaben wird ein SHA-256-Fingerabdruck
+ * gebildet und neben dem Bündel abgelegt; stimmt er beim nächsten Lauf, gibt
+ * es nichts zu tun. Jede Ausgabe wird nur geschrieben, wenn sich ihr Inhalt
+ * ändert, und zwar atomar (temporäre Datei im selben Ordner, dann umbenennen),
+ * damit ein abgebrochener Lauf nie ein halbes Bündel hinterlässt.
+ *
+ * Aufruf: {@code java CreateImages [bildordner] [bündel] [kopie...]}
+ * (Standard: images, images/icons.bundle). Weitere Pfade bekommen eine Kopie
+ * des Bündels, z.B. target/classes im Maven-Build.
+ */
 public class CreateImages {
+    // bei Änderungen an Zeichnung, Skalierung oder Format erhöhen: erzwingt Neuaufbau
+    static final int GENERATOR_VERSION = 1;
+    static final String FINGERPRINT_SUFFIX = ".sha256";
+
     public static void main(String[] args) throws Exception {
-        // Erstelle images-Verzeichnis
-        new File("images").mkdirs();
+        System.setProperty("java.awt.headless", "true");
+        Path imageDir = Path.of(args.length > 0 ? args[0] : "images");
+        Path bundle = Path.of(args.length > 1 ? args[1] : "images/icons.bundle");
+        List<Path> copies = new ArrayList<>();
+        for (int i = 2; i < args.length; i++)
+            copies.add(Path.of(args[i]));
+
+        long start = System.nanoTime();
+        Files.createDirectories(imageDir);
+        String result = generate(imageDir, bundle, copies);
+        System.out.printf("%s (%d ms)%n", result, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Bringt Originale, Bündel und Kopien auf den neuesten Stand; liefert eine Zusammenfassung. */
+    static String generate(Path imageDir, Path bundle, List<Path> copies) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        String[] names = IconBundle.NAMES;
+
+        // 1. Originale: fehlende Waffenbilder zeichnen
+        int drawn = 0;
+        for (String name : names) {
+            Path master = imageDir.resolve(name + ".png");
+            if (!Files.exists(master)) {
+                BufferedImage art = drawFallback(name);
+                if (art == null)
+                    throw new IOException("Originalbild fehlt: " + master);
+                if (writeIfChanged(master, encodePng(art)))
+                    drawn++;
+            }
+        }
+
+        // 2. Fingerabdruck über alle Eingaben
+        byte[][] masterBytes = new byte[names.length][];
+        for (int i = 0; i < names.length; i++)
+            masterBytes[i] = Files.readAllBytes(imageDir.resolve(names[i] + ".png"));
+        String fingerprint = fingerprint(masterBytes);
+        Path fingerprintFile = bundle.resolveSibling(bundle.getFileName() + FINGERPRINT_SUFFIX);
+        boolean upToDate = Files.exists(bundle) && Files.exists(fingerprintFile)
+                && fingerprint.equals(Files.readString(fingerprintFile, StandardCharsets.UTF_8).trim());
+
+        byte[] bundleBytes;
+        String summary;
+        if (upToDate) {
+            bundleBytes = Files.readAllBytes(bundle);
+            summary = "Bildbündel aktuell";
+        } else {
+            // 3. Originale parallel dekodieren, dann alle Varianten parallel rendern
+            BufferedImage[] masters = new BufferedImage[names.length];
+            parallelFor(pool, names.length, i -> masters[i] = decode(masterBytes[i], names[i]));
 
-        // Stein
-        createSteinImage();
-        // Papier
-        createPapierImage();
-        // Schere
-        createSchereImage();
+            int sizes = (IconBundle.MAX_SIZE - IconBundle.MIN_SIZE) / IconBundle.SIZE_STEP + 1;
+            String[] entryNames = new String[names.length * sizes];
+            int[] entrySizes = new int[entryNames.length];
+            byte[][] pngs = new byte[entryNames.length][];
+            parallelFor(pool, entryNames.length, job -> {
+                int n = job / sizes;
+                int size = IconBundle.MIN_SIZE + (job % sizes) * IconBundle.SIZE_STEP;
+                int icon = IconBundle.iconSize(size);
+                entryNames[job] = names[n];
+                entrySizes[job] = size;
+                pngs[job] = encodePng(IconBundle.scale(masters[n], icon, icon));
+            });
+
+            bundleBytes = IconBundle.encode(entryNames, entrySizes, pngs);
+            boolean written = writeIfChanged(bundle, bundleBytes);
+            writeIfChanged(fingerprintFile, (fingerprint + "\n").getBytes(StandardCharsets.UTF_8));
+            summary = String.format("Bildbündel %s: %d Varianten, %d KB", written ? "neu geschrieben" : "unverändert",
+                    entryNames.length, bundleBytes.length / 1024);
+        }
+
+        int copied = 0;
+        for (Path copy : copies) {
+            if (writeIfChanged(copy, bundleBytes))
+                copied++;
+        }
+        if (drawn > 0)
+            summary += ", " + drawn + " Originale gezeichnet";
+        if (copied > 0)
+            summary += ", " + copied + " Kopien aktualisiert";
+        return summary;
+    }
+
+    // verteilt die Indizes 0..count-1 per Teile-und-herrsche auf den Pool
+    private static void parallelFor(ForkJoinPool pool, int count, IntConsumer body) {
+        final class Range extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int lo;
+            private final int hi;
+
+            Range(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo <= 1) {
+                    for (int i = lo; i < hi; i++)
+                        body.accept(i);
+                } else {
+                    int mid = (lo + hi) >>> 1;
+                    invokeAll(new Range(lo, mid), new Range(mid, hi));
+                }
+            }
+        }
+        pool.invoke(new Range(0, count));
+    }
 
-        System.out.println("PNG-Dateien erstellt!");
+    private static BufferedImage decode(byte[] png, String name) {
+        try {
+            BufferedImage image = ImageIO.read(new java.io.ByteArrayInputStream(png));
+            if (image == null)
+                throw new IllegalStateException("kein lesbares Bild: " + name);
+            return image;
+        } catch (IOException ex) {
+            throw new java.io.UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] encodePng(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException ex) {
+            throw new java.io.UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    static String fingerprint(byte[][] inputs) {
+        MessageDigest digest = sha256();
+        digest.update(("v" + GENERATOR_VERSION + ":" + IconBundle.VERSION + ":" + IconBundle.MIN_SIZE + "-"
+                + IconBundle.MAX_SIZE + "/" + IconBundle.SIZE_STEP + ":" + String.join(",", IconBundle.NAMES))
+                .getBytes(StandardCharsets.UTF_8));
+        for (byte[] input : inputs) {
+            digest.update(intBytes(input.length));
+            digest.update(input);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Schreibt content nach target, außer die Datei hat schon genau diesen
+     * Inhalt (gleicher SHA-256). Atomar über eine temporäre Datei im selben
+     * Ordner.
+     *
+     * @return true, wenn geschrieben wurde
+     */
+    static boolean writeIfChanged(Path target, byte[] content) throws IOException {
+        if (Files.exists(target)
+                && Arrays.equals(sha256().digest(Files.readAllBytes(target)), sha256().digest(content)))
+            return false;
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // gehört zu jeder Java-Plattform
+        }
+    }
+
+    private static byte[] intBytes(int v) {
+        return new byte[] { (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v };
+    }
+
+    // einfache Strichzeichnungen, falls ein Waffenbild fehlt
+    static BufferedImage drawFallback(String name) {
+        switch (name) {
+            case "stein":
+                return createSteinImage();
+            case "papier":
+                return createPapierImage();
+            case "schere":
+                return createSchereImage();
+            default:
+                return null;
+        }
     }
 
-    static void createSteinImage() throws Exception {
+    static BufferedImage createSteinImage() {
         BufferedImage img = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2 = img.createGraphics();
         g2.setColor(Color.WHITE);
@@ -29,10 +246,11 @@ public class CreateImages {
         g2.drawOval(70, 60, 60, 60);
         g2.setStroke(new BasicStroke(2));
         g2.drawLine(85, 80, 80, 50);
-        ImageIO.write(img, "png", new File("images/stein.png"));
+        g2.dispose();
+        return img;
     }
 
-    static void createPapierImage() throws Exception {
+    static BufferedImage createPapierImage() {
         BufferedImage img = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2 = img.createGraphics();
         g2.setColor(Color.WHITE);
@@ -47,10 +265,11 @@ public class CreateImages {
             g2.drawLine(x, 85, x, 40);
         }
         g2.drawLine(70, 100, 50, 130);
-        ImageIO.write(img, "png", new File("images/papier.png"));
+        g2.dispose();
+        return img;
     }
 
-    static void createSchereImage() throws Exception {
+    static BufferedImage createSchereImage() {
         BufferedImage img = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2 = img.createGraphics();
         g2.setColor(Color.WHITE);
@@ -63,6 +282,7 @@ public class CreateImages {
         g2.drawLine(100, 90, 125, 140);
         g2.setStroke(new BasicStroke(2));
         g2.drawLine(95, 110, 85, 95);
-        ImageIO.write(img, "png", new File("images/schere.png"));
+        g2.dispose();
+        return img;
     }
 }
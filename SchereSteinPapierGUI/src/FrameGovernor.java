@@ -0,0 +1,131 @@
+/**
+ * Regelt die Dichte der Jubel-Effekte nach der gemessenen Framezeit.
+ *
+ * Gemessen werden die Zeichenzeit des Panels, die Zeit eines
+ * Simulationsschritts und der Abstand zwischen zwei gezeichneten Frames, jeweils
+ * als gleitender Mittelwert. Alle {@link #WINDOW} Frames wird die
+ * Qualitätsstufe angepasst: liegt die Arbeit pro Frame nahe am Budget der
+ * Ziel-Framerate (oder kommen die Frames zu spät), geht es eine Stufe nach
+ * unten, bei viel Luft wieder eine nach oben. Die Stufe bestimmt Anzahl von
+ * Konfetti und Funken, die Raketenrate und ob mit Antialiasing gezeichnet
+ * wird. Die Ziel-Framerate kommt aus {@code -Dssp.targetFps} (Standard 60).
+ *
+ * {@link #recordPaint} nur vom zeichnenden Thread aufrufen (EDT bzw. der
+ * Render-Thread von {@link ActiveCelebration}), {@link #recordUpdate} nur vom
+ * Thread der Simulation; die Abfragen sind von überall erlaubt.
+ */
+final class FrameGovernor {
+    static final int DEFAULT_TARGET_FPS = 60;
+    static final int MAX_LEVEL = 3;
+    private static final float[] DENSITY = { 0.25f, 0.5f, 0.75f, 1.0f }; // pro Stufe
+    private static final int ANTIALIAS_LEVEL = 2; // ab dieser Stufe mit Antialiasing
+
+    static final int WINDOW = 30; // Frames zwischen zwei Anpassungen
+    private static final double SMOOTHING = 0.1; // Gewicht einer neuen Messung
+    private static final double LOWER_ABOVE = 0.9; // Anteil am Budget, ab dem gespart wird
+    private static final double RAISE_BELOW = 0.5;
+    private static final double LATE_FRAME = 1.5; // Frameabstand in Budgets, der als "zu spät" gilt
+    private static final long MAX_GAP_NANOS = 250_000_000L; // längere Pausen sind keine Animation
+
+    private final int targetFps;
+    private final long budgetNanos;
+    private volatile int level = MAX_LEVEL;
+
+    // gehören dem EDT
+    private double paintNanos = 0;
+    private double frameNanos = 0;
+    private long lastPaintEnd = 0;
+    private int framesSinceAdjust = 0;
+    private long adjustments = 0;
+
+    // gehört dem Simulationsthread, wird vom EDT gelesen
+    private volatile double updateNanos = 0;
+
+    FrameGovernor(int targetFps) {
+        if (targetFps < 1)
+            throw new IllegalArgumentException("Ziel-Framerate muss positiv sein: " + targetFps);
+        this.targetFps = targetFps;
+        this.budgetNanos = 1_000_000_000L / targetFps;
+    }
+
+    /** Governor mit Ziel-Framerate aus {@code -Dssp.targetFps}. */
+    static FrameGovernor fromProperties() {
+        int fps = Integer.getInteger("ssp.targetFps", DEFAULT_TARGET_FPS);
+        return new FrameGovernor(Math.max(1, fps));
+    }
+
+    /** Dauer eines Simulationsschritts. */
+    void recordUpdate(long nanos) {
+        double avg = updateNanos;
+        updateNanos = avg == 0 ? nanos : avg + SMOOTHING * (nanos - avg);
+    }
+
+    /** Ein gezeichneter Frame von startNanos bis endNanos (System.nanoTime). */
+    void recordPaint(long startNanos, long endNanos) {
+        long took = endNanos - startNanos;
+        paintNanos = paintNanos == 0 ? took : paintNanos + SMOOTHING * (took - paintNanos);
+
+        long gap = endNanos - lastPaintEnd;
+        lastPaintEnd = endNanos;
+        if (gap > MAX_GAP_NANOS)
+            return; // erster Frame einer neuen Animation
+        frameNanos = frameNanos == 0 ? gap : frameNanos + SMOOTHING * (gap - frameNanos);
+
+        if (++framesSinceAdjust < WINDOW)
+            return;
+        framesSinceAdjust = 0;
+        double work = paintNanos + updateNanos;
+        boolean late = frameNanos > LATE_FRAME * budgetNanos;
+        int current = level;
+        if ((work > LOWER_ABOVE * budgetNanos || late) && current > 0) {
+            level = current - 1;
+            adjustments++;
+        } else if (work < RAISE_BELOW * budgetNanos && !late && current < MAX_LEVEL) {
+            level = current + 1;
+            adjustments++;
+        }
+    }
+
+    int getTargetFps() {
+        return targetFps;
+    }
+
+    /** Aktuelle Qualitätsstufe 0 (sparsam) bis {@link #MAX_LEVEL} (volle Dichte). */
+    int getQualityLevel() {
+        return level;
+    }
+
+    /** Anteil 0..1 der vollen Partikelmenge und Raketenrate. */
+    float density() {
+        return DENSITY[level];
+    }
+
+    boolean antialiasing() {
+        return level >= ANTIALIAS_LEVEL;
+    }
+
+    double getAveragePaintMillis() {
+        return paintNanos / 1e6;
+    }
+
+    double getAverageUpdateMillis() {
+        return updateNanos / 1e6;
+    }
+
+    /** Mittlerer Abstand zweier gezeichneter Frames. */
+    double getAverageFrameMillis() {
+        return frameNanos / 1e6;
+    }
+
+    long getAdjustments() {
+        return adjustments;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Frames: Ziel %d FPS, Stufe %d/%d, Zeichnen %.2f ms, Schritt %.2f ms, Abstand %.2f ms, %d Anpassungen",
+                targetFps, level, MAX_LEVEL, getAveragePaintMillis(), getAverageUpdateMillis(),
+                getAverageFrameMillis(), adjustments);
+    }
+}
@@ -0,0 +1,124 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eigene JDK-Flight-Recorder-Events für Runden, Animationen, Zeichnen und
+ * Bildladen.
+ *
+ * Aufzeichnen z.B. mit
+ * {@code java -XX:StartFlightRecording=filename=ssp.jfr,settings=profile App}
+ * und anschließend mit {@code jfr print --categories "Schere Stein Papier" ssp.jfr}
+ * oder JDK Mission Control auswerten. Ohne laufende Aufzeichnung kosten die
+ * Events praktisch nichts: Felder werden nur gesetzt, wenn
+ * {@link Event#shouldCommit()} true liefert, und das Event-Objekt selbst wird
+ * vom JIT wegoptimiert.
+ */
+final class GameEvents {
+    static final String CATEGORY = "Schere Stein Papier";
+
+    // Zweige von EmojiPanel.paintComponent
+    static final String BRANCH_BATTLE = "battle";
+    static final String BRANCH_RESULT = "result";
+    static final String BRANCH_IDLE = "idle";
+
+    // Herkunft eines Icons
+    static final String SOURCE_CACHE = "cache";
+    static final String SOURCE_BUNDLE = "bundle"; // fertig skaliert aus dem Bildbündel
+    static final String SOURCE_SCALED = "scaled"; // Größe nicht im Bündel, neu skaliert
+    static final String SOURCE_MISSING = "missing";
+
+    private GameEvents() {
+    }
+
+    @Name("ssp.Round")
+    @Label("Runde")
+    @Description("Eine Runde wird entschieden (spiele)")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Round extends Event {
+        @Label("Spieler")
+        String player;
+        @Label("Computer")
+        String computer;
+        @Label("Ergebnis")
+        String outcome;
+        @Label("Schlaue KI")
+        boolean smartOpponent;
+    }
+
+    @Name("ssp.BattleAnimation")
+    @Label("Kampfanimation")
+    @Description("Wackelanimation vom Start bis zur Ergebnisanzeige")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class BattleAnimation extends Event {
+        @Label("Spieler")
+        String player;
+        @Label("Computer")
+        String computer;
+        @Label("Frames")
+        int frames;
+        @Label("Abgeschlossen")
+        @Description("false, wenn eine neue Runde die Animation abgebrochen hat")
+        boolean completed;
+    }
+
+    @Name("ssp.ParticleStep")
+    @Label("Partikelschritt")
+    @Description("Ein Simulationsschritt der Jubel-Feier")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ParticleStep extends Event {
+        @Label("Konfetti")
+        int confetti;
+        @Label("Funken")
+        int sparks;
+        @Label("Raketen")
+        int rockets;
+        @Label("Qualitätsstufe")
+        int qualityLevel;
+    }
+
+    @Name("ssp.Paint")
+    @Label("Panel zeichnen")
+    @Description("Ein Aufruf von EmojiPanel.paintComponent")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Paint extends Event {
+        @Label("Zweig")
+        String branch;
+        @Label("Ausschnitt Breite")
+        int clipWidth;
+        @Label("Ausschnitt Höhe")
+        int clipHeight;
+    }
+
+    @Name("ssp.Startup")
+    @Label("Programmstart")
+    @Description("Von App.main bis zum ersten vollständig gezeichneten Fenster")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Startup extends Event {
+        @Label("Seit JVM-Start")
+        @Description("Millisekunden vom Start der JVM bis zum ersten Bild")
+        long sinceJvmStartMs;
+    }
+
+    @Name("ssp.IconLoad")
+    @Label("Icon laden")
+    @Description("Ein Aufruf von loadImage; die Dauer enthält Dekodieren und Skalieren")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class IconLoad extends Event {
+        @Label("Bild")
+        String choice;
+        @Label("Größe")
+        int size;
+        @Label("Herkunft")
+        String source;
+    }
+}
@@ -0,0 +1,192 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Alle Spielbilder in einer einzigen Datei auf dem Klassenpfad.
+ *
+ * Das Bündel {@value #RESOURCE} enthält jedes Bild fertig skaliert für jede
+ * Knopfgröße, die der Größen-Spinner erlaubt ({@link #MIN_SIZE} bis
+ * {@link #MAX_SIZE} in Schritten von {@link #SIZE_STEP}). Geladen wird per
+ * getResourceAsStream, also ohne Dateisuche und unabhängig vom
+ * Arbeitsverzeichnis, auch aus dem Jar. Andere Größen werden aus der größten
+ * Stufe herunterskaliert.
+ *
+ * Format: int {@link #MAGIC}, int {@link #VERSION}, int Anzahl, je Eintrag
+ * (UTF Name, int Knopfgröße, int Offset, int Länge), danach die PNG-Daten;
+ * Offsets zählen ab dem Ende des Index.
+ *
+ * Erzeugt wird es von {@link CreateImages}.
+ */
+final class IconBundle {
+    static final String RESOURCE = "/images/icons.bundle";
+    static final int MAGIC = 0x53535042; // "SSPB"
+    static final int VERSION = 1;
+    static final int MIN_SIZE = 80;
+    static final int MAX_SIZE = 200;
+    static final int SIZE_STEP = 10;
+    static final String[] NAMES = { "stein", "papier", "schere", "shake" };
+
+    private final byte[] data;
+    private final int dataStart;
+    private final Map<String, int[]> index; // name@größe -> {offset, länge}
+
+    private IconBundle(byte[] data, int dataStart, Map<String, int[]> index) {
+        this.data = data;
+        this.dataStart = dataStart;
+        this.index = index;
+    }
+
+    /** Liest das Bündel vom Klassenpfad; null, wenn es fehlt oder kaputt ist. */
+    static IconBundle load() {
+        try (InputStream in = IconBundle.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                System.err.println("Bildbündel fehlt auf dem Klassenpfad: " + RESOURCE);
+                return null;
+            }
+            return parse(in.readAllBytes());
+        } catch (IOException ex) {
+            System.err.println("Bildbündel konnte nicht gelesen werden: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    static IconBundle parse(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC)
+            throw new IOException("kein Bildbündel");
+        int version = in.readInt();
+        if (version != VERSION)
+            throw new IOException("unbekannte Bündel-Version " + version);
+        int count = in.readInt();
+        Map<String, int[]> index = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            int size = in.readInt();
+            int offset = in.readInt();
+            int length = in.readInt();
+            index.put(key(name, size), new int[] { offset, length });
+        }
+        int dataStart = bytes.length - in.available();
+        return new IconBundle(bytes, dataStart, index);
+    }
+
+    /** Pixelgröße des Icons für eine Knopfgröße. */
+    static int iconSize(int buttonSize) {
+        return (int) (buttonSize * 0.85);
+    }
+
+    boolean contains(String name, int buttonSize) {
+        return index.containsKey(key(name, buttonSize));
+    }
+
+    /**
+     * Icon für die Knopfgröße: fertig aus dem Bündel oder, für Größen außerhalb
+     * der Stufen, aus der größten Stufe skaliert. null, wenn es das Bild nicht
+     * gibt.
+     */
+    BufferedImage read(String name, int buttonSize) {
+        BufferedImage exact = decode(name, buttonSize);
+        if (exact != null)
+            return exact;
+        BufferedImage largest = decode(name, MAX_SIZE);
+        if (largest == null)
+            return null;
+        int target = iconSize(buttonSize);
+        return scale(largest, target, target);
+    }
+
+    private BufferedImage decode(String name, int buttonSize) {
+        int[] entry = index.get(key(name, buttonSize));
+        if (entry == null)
+            return null;
+        try {
+            return ImageIO.read(new ByteArrayInputStream(data, dataStart + entry[0], entry[1]));
+        } catch (IOException ex) {
+            System.err.println("Bild im Bündel kaputt: " + name + "@" + buttonSize + " (" + ex.getMessage() + ")");
+            return null;
+        }
+    }
+
+    private static String key(String name, int buttonSize) {
+        return name + "@" + buttonSize;
+    }
+
+    // Mehrstufige bilineare Skalierung: beim Verkleinern wird jeweils höchstens
+    // halbiert, das ergibt fast die Qualität von SCALE_SMOOTH bei einem Bruchteil
+    // der Kosten von getScaledInstance.
+    static BufferedImage scale(BufferedImage src, int targetW, int targetH) {
+        targetW = Math.max(1, targetW);
+        targetH = Math.max(1, targetH);
+        BufferedImage current = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        do {
+            if (w > targetW)
+                w = Math.max(targetW, w / 2);
+            else
+                w = targetW;
+            if (h > targetH)
+                h = Math.max(targetH, h / 2);
+            else
+                h = targetH;
+
+            BufferedImage next = (w == targetW && h == targetH) ? createCompatibleImage(w, h)
+                    : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = next.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(current, 0, 0, w, h, null);
+            g2.dispose();
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    /**
+     * Erzeugt ein zum Bildschirm kompatibles Bild (im Headless-Betrieb ARGB).
+     * Liegt hier und nicht in App, damit {@link CreateImages} beim Bauen ohne
+     * die Spielklassen auskommt.
+     */
+    static BufferedImage createCompatibleImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /** Setzt das Bündel aus fertig kodierten PNGs zusammen (Reihenfolge bleibt erhalten). */
+    static byte[] encode(String[] names, int[] buttonSizes, byte[][] pngs) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.length);
+            int offset = 0;
+            for (int i = 0; i < names.length; i++) {
+                out.writeUTF(names[i]);
+                out.writeInt(buttonSizes[i]);
+                out.writeInt(offset);
+                out.writeInt(pngs[i].length);
+                offset += pngs[i].length;
+            }
+            for (byte[] png : pngs)
+                out.write(png);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new java.io.UncheckedIOException(ex); // ByteArrayOutputStream wirft nicht
+        }
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Die JSON-Nachrichten des Raum-Protokolls von web/app.js ({@code create},
+ * {@code join}, {@code move}, ...): immer ein flaches Objekt mit Text-, Zahl-,
+ * Wahrheits- oder null-Werten.
+ *
+ * Mehr kann und braucht dieser Leser nicht; verschachtelte Objekte und
+ * Arrays lehnt er ab, statt eine Bibliothek mitzuschleppen. Benutzt vom
+ * Spielserver (Modul server) und vom Netzwerkmodus der App.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Liest ein flaches Objekt. Werte kommen als Text zurück (Zahlen und
+     * true/false unverändert), JSON-null als null.
+     *
+     * @throws IllegalArgumentException bei ungültigem oder verschachteltem JSON
+     */
+    static Map<String, String> parseObject(String text) {
+        Reader in = new Reader(text);
+        Map<String, String> result = new HashMap<>(8);
+        in.expect('{');
+        if (!in.consume('}')) {
+            do {
+                String key = in.string();
+                in.expect(':');
+                result.put(key, in.value());
+            } while (in.consume(','));
+            in.expect('}');
+        }
+        in.skipWhitespace();
+        if (in.pos != text.length())
+            throw in.error("Text nach dem Objekt");
+        return result;
+    }
+
+    /** Neues Objekt zum Schreiben, z.B. {@code Json.object().put("type", "created").toString()}. */
+    static Builder object() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private final StringBuilder sb = new StringBuilder(64).append('{');
+
+        Builder put(String key, String value) {
+            key(key);
+            if (value == null)
+                sb.append("null");
+            else
+                quote(value);
+            return this;
+        }
+
+        Builder put(String key, long value) {
+            key(key);
+            sb.append(value);
+            return this;
+        }
+
+        Builder put(String key, double value) {
+            key(key);
+            sb.append(Double.isFinite(value) ? Double.toString(value) : "null"); // NaN/Infinity gibt es in JSON nicht
+            return this;
+        }
+
+        Builder put(String key, boolean value) {
+            key(key);
+            sb.append(value);
+            return this;
+        }
+
+        private void key(String key) {
+            if (sb.length() > 1)
+                sb.append(',');
+            quote(key);
+            sb.append(':');
+        }
+
+        private void quote(String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"':
+                        sb.append("\\\"");
+                        break;
+                    case '\\':
+                        sb.append("\\\\");
+                        break;
+                    case '\n':
+                        sb.append("\\n");
+                        break;
+                    case '\r':
+                        sb.append("\\r");
+                        break;
+                    case '\t':
+                        sb.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20)
+                            sb.append(String.format("\\u%04x", (int) c));
+                        else
+                            sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+
+        @Override
+        public String toString() {
+            return sb + "}";
+        }
+    }
+
+    private static final class Reader {
+        private final String text;
+        private int pos = 0;
+
+        Reader(String text) {
+            this.text = text;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+                pos++;
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c))
+                throw error("'" + c + "' erwartet");
+        }
+
+        String value() {
+            skipWhitespace();
+            if (pos >= text.length())
+                throw error("Wert erwartet");
+            char c = text.charAt(pos);
+            if (c == '"')
+                return string();
+            if (c == '{' || c == '[')
+                throw error("verschachtelte Werte werden nicht unterstützt");
+            int start = pos;
+            while (pos < text.length() && "+-.0123456789eEtrufalsn".indexOf(text.charAt(pos)) >= 0)
+                pos++;
+            String token = text.substring(start, pos);
+            if (token.equals("null"))
+                return null;
+            if (token.equals("true") || token.equals("false"))
+                return token;
+            try {
+                Double.parseDouble(token);
+            } catch (NumberFormatException ex) {
+                throw error("ungültiger Wert '" + token + "'");
+            }
+            return token;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = null; // nur bei Escapes nötig
+            int start = pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"')
+                    return sb == null ? text.substring(start, pos - 1) : sb.toString();
+                if (c == '\\') {
+                    if (sb == null)
+                        sb = new StringBuilder(text.substring(start, pos - 1));
+                    if (pos >= text.length())
+                        break;
+                    char e = text.charAt(pos++);
+                    switch (e) {
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'b':
+                            sb.append('\b');
+                            break;
+                        case 'f':
+                            sb.append('\f');
+                            break;
+                        case 'u':
+                            if (pos + 4 > text.length())
+                                throw error("unvollständiges \\u");
+                            try {
+                                sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            } catch (NumberFormatException ex) {
+                                throw error("ungültiges \\u");
+                            }
+                            pos += 4;
+                            break;
+                        default:
+                            sb.append(e); // \" \\ \/
+                    }
+                } else if (sb != null) {
+                    sb.append(c);
+                }
+            }
+            throw error("Text nicht abgeschlossen");
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("JSON: " + message + " an Position " + pos);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Dauerhafte Rundenchronik: jede Runde als Datensatz fester Breite in einer
+ * Datei, angehängt über ein Memory-Mapping.
+ *
+ * Aufbau: ein Kopf von {@value #HEADER_BYTES} Bytes, danach die Runden zu je
+ * {@value #RECORD_BYTES} Bytes (long Zeitstempel in ms, int Match-ID, byte
+ * Spielerwaffe, byte Computerwaffe, byte Ergebnis, ein Byte Reserve). Der Kopf
+ * enthält neben der Rundenzahl die laufenden Summen: Runden je Waffe und
+ * Ergebnis sowie aktuelle und längste Serien. Alle Abfragen lesen nur diese
+ * Summen und kosten konstante Zeit, egal wie viele Millionen Runden die Datei
+ * hat; auch das Öffnen liest nur den Kopf.
+ *
+ * Angehängt wird in ein gemapptes Fenster von {@value #WINDOW_RECORDS} Runden
+ * am Dateiende, das beim Überlaufen weiterrückt; Schreiben ist damit ein
+ * Speicherzugriff ohne Systemaufruf. Reihenfolge: erst der Datensatz, dann die
+ * Summen, zuletzt die Rundenzahl. Bricht das Programm dazwischen ab, passen
+ * Summen und Rundenzahl nicht zusammen, und beim nächsten Öffnen werden die
+ * Summen einmal aus den Datensätzen neu berechnet.
+ *
+ * Mehrere Spielinstanzen auf einem Automaten teilen sich die Datei nicht:
+ * wer sie zuerst öffnet, hält eine Dateisperre, alle anderen spielen ohne
+ * Chronik. Nur auf einem Thread (dem EDT) benutzen.
+ */
+final class MatchHistory implements Closeable {
+    static final int MAGIC = 0x53535048; // "SSPH"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 128;
+    static final int RECORD_BYTES = 16;
+    static final int WINDOW_RECORDS = 1 << 16; // 1 MB pro gemapptem Fenster
+
+    private static final int MOVES = Move.COUNT;
+    private static final int OUTCOMES = RoundEngine.Outcome.VALUES.length;
+
+    // Kopf
+    private static final int POS_MAGIC = 0;
+    private static final int POS_VERSION = 4;
+    private static final int POS_RECORD_BYTES = 8;
+    private static final int POS_MOVES = 12;
+    private static final int POS_COUNT = 16;
+    private static final int POS_LAST_MATCH = 24;
+    private static final int POS_STREAK = 28;
+    private static final int POS_LONGEST_WIN = 32;
+    private static final int POS_LONGEST_LOSE = 36;
+    private static final int POS_TALLY = 40; // long[MOVES * OUTCOMES], [Waffe][Ergebnis]
+
+    // Datensatz
+    private static final int REC_TIME = 0;
+    private static final int REC_MATCH = 8;
+    private static final int REC_PLAYER = 12;
+    private static final int REC_COMPUTER = 13;
+    private static final int REC_OUTCOME = 14;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer window; // Fenster für die nächsten Anhänge
+    private long windowStart = -1; // erste Rundennummer im Fenster
+
+    // Spiegel des Kopfes, damit Abfragen keine Bytes dekodieren
+    private long count;
+    private int lastMatchId;
+    private int streak; // > 0 Siege in Folge, < 0 Niederlagen in Folge
+    private int longestWinStreak;
+    private int longestLoseStreak;
+    private final long[] tally = new long[MOVES * OUTCOMES];
+    private final long[] roundsPerMove = new long[MOVES];
+
+    private MatchHistory(FileChannel channel, FileLock lock) throws IOException {
+        this.channel = channel;
+        this.lock = lock;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+    }
+
+    /**
+     * Öffnet die Chronik oder legt sie an. null, wenn eine andere Instanz sie
+     * gerade benutzt.
+     */
+    static MatchHistory open(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null)
+            Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (java.nio.channels.OverlappingFileLockException ex) {
+                lock = null; // schon in dieser JVM geöffnet
+            }
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            boolean fresh = channel.size() < HEADER_BYTES;
+            MatchHistory history = new MatchHistory(channel, lock);
+            if (fresh)
+                history.initHeader();
+            else
+                history.readHeader(file);
+            return history;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /** Datei laut {@code -Dssp.historyFile}, sonst im Benutzerordner. */
+    static Path defaultFile() {
+        String configured = System.getProperty("ssp.historyFile");
+        if (configured != null)
+            return Path.of(configured);
+        return Path.of(System.getProperty("user.home"), ".schere-stein-papier", "history.bin");
+    }
+
+    private void initHeader() {
+        header.putInt(POS_MAGIC, MAGIC);
+        header.putInt(POS_VERSION, VERSION);
+        header.putInt(POS_RECORD_BYTES, RECORD_BYTES);
+        header.putInt(POS_MOVES, MOVES);
+        writeSummary();
+        header.putLong(POS_COUNT, 0);
+    }
+
+    private void readHeader(Path file) throws IOException {
+        if (header.getInt(POS_MAGIC) != MAGIC)
+            throw new IOException("keine Rundenchronik: " + file);
+        if (header.getInt(POS_VERSION) != VERSION || header.getInt(POS_RECORD_BYTES) != RECORD_BYTES
+                || header.getInt(POS_MOVES) != MOVES)
+            throw new IOException("Rundenchronik hat ein anderes Format: " + file);
+        long available = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        count = Math.max(0, Math.min(header.getLong(POS_COUNT), available));
+        lastMatchId = header.getInt(POS_LAST_MATCH);
+        streak = header.getInt(POS_STREAK);
+        longestWinStreak = header.getInt(POS_LONGEST_WIN);
+        longestLoseStreak = header.getInt(POS_LONGEST_LOSE);
+        long sum = 0;
+        for (int i = 0; i < tally.length; i++) {
+            tally[i] = header.getLong(POS_TALLY + i * 8);
+            sum += tally[i];
+        }
+        if (sum != count) {
+            rebuild(); // letzter Anhang wurde unterbrochen
+            return;
+        }
+        for (int i = 0; i < tally.length; i++)
+            roundsPerMove[i / OUTCOMES] += tally[i];
+    }
+
+    // Summen aus den Datensätzen neu berechnen; liest die Datei fensterweise
+    private void rebuild() throws IOException {
+        java.util.Arrays.fill(tally, 0);
+        java.util.Arrays.fill(roundsPerMove, 0);
+        streak = 0;
+        longestWinStreak = 0;
+        longestLoseStreak = 0;
+        for (long start = 0; start < count; start += WINDOW_RECORDS) {
+            int n = (int) Math.min(WINDOW_RECORDS, count - start);
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + start * RECORD_BYTES, (long) n * RECORD_BYTES);
+            for (int i = 0; i < n; i++) {
+                int at = i * RECORD_BYTES;
+                int player = records.get(at + REC_PLAYER);
+                int outcome = records.get(at + REC_OUTCOME);
+                if (player < 0 || player >= MOVES || outcome < 0 || outcome >= OUTCOMES) {
+                    count = start + i; // kaputter Rest wird überschrieben
+                    break;
+                }
+                lastMatchId = Math.max(lastMatchId, records.getInt(at + REC_MATCH));
+                count(player, outcome);
+            }
+        }
+        writeSummary();
+        header.putLong(POS_COUNT, count);
+    }
+
+    /** Beginnt ein neues Match und liefert seine ID. */
+    int startMatch() {
+        lastMatchId++;
+        header.putInt(POS_LAST_MATCH, lastMatchId);
+        return lastMatchId;
+    }
+
+    /** Hängt eine Runde an und aktualisiert die Summen. */
+    void append(long timeMillis, int matchId, Move player, Move computer, RoundEngine.Outcome outcome)
+            throws IOException {
+        if (windowStart < 0 || count - windowStart >= WINDOW_RECORDS) {
+            // Fenster am Dateiende weiterrücken; map vergrößert die Datei bei Bedarf
+            windowStart = count;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + count * RECORD_BYTES,
+                    (long) WINDOW_RECORDS * RECORD_BYTES);
+        }
+        int at = (int) (count - windowStart) * RECORD_BYTES;
+        window.putLong(at + REC_TIME, timeMillis);
+        window.putInt(at + REC_MATCH, matchId);
+        window.put(at + REC_PLAYER, (byte) player.ordinal());
+        window.put(at + REC_COMPUTER, (byte) computer.ordinal());
+        window.put(at + REC_OUTCOME, (byte) outcome.ordinal());
+
+        int cell = count(player.ordinal(), outcome.ordinal());
+        header.putLong(POS_TALLY + cell * 8, tally[cell]);
+        header.putInt(POS_STREAK, streak);
+        header.putInt(POS_LONGEST_WIN, longestWinStreak);
+        header.putInt(POS_LONGEST_LOSE, longestLoseStreak);
+        header.putLong(POS_COUNT, ++count);
+    }
+
+    // zählt eine Runde in die Summen (ohne count); liefert die Tabellenzelle
+    private int count(int player, int outcome) {
+        int cell = player * OUTCOMES + outcome;
+        tally[cell]++;
+        roundsPerMove[player]++;
+        if (outcome == RoundEngine.WIN) {
+            streak = streak > 0 ? streak + 1 : 1;
+            longestWinStreak = Math.max(longestWinStreak, streak);
+        } else if (outcome == RoundEngine.LOSE) {
+            streak = streak < 0 ? streak - 1 : -1;
+            longestLoseStreak = Math.max(longestLoseStreak, -streak);
+        } else {
+            streak = 0; // Unentschieden beendet jede Serie
+        }
+        return cell;
+    }
+
+    private void writeSummary() {
+        header.putInt(POS_LAST_MATCH, lastMatchId);
+        header.putInt(POS_STREAK, streak);
+        header.putInt(POS_LONGEST_WIN, longestWinStreak);
+        header.putInt(POS_LONGEST_LOSE, longestLoseStreak);
+        for (int i = 0; i < tally.length; i++)
+            header.putLong(POS_TALLY + i * 8, tally[i]);
+    }
+
+    long rounds() {
+        return count;
+    }
+
+    long rounds(Move player) {
+        return roundsPerMove[player.ordinal()];
+    }
+
+    long count(Move player, RoundEngine.Outcome outcome) {
+        return tally[player.ordinal() * OUTCOMES + outcome.ordinal()];
+    }
+
+    long count(RoundEngine.Outcome outcome) {
+        long sum = 0;
+        for (int m = 0; m < MOVES; m++)
+            sum += tally[m * OUTCOMES + outcome.ordinal()];
+        return sum;
+    }
+
+    /** Anteil der Siege, wenn der Spieler diese Waffe wählt; 0 ohne Runden. */
+    double winRate(Move player) {
+        long n = roundsPerMove[player.ordinal()];
+        return n == 0 ? 0 : (double) count(player, RoundEngine.Outcome.WIN) / n;
+    }
+
+    /** Aktuelle Serie: positiv Siege, negativ Niederlagen in Folge, 0 nach Unentschieden. */
+    int currentStreak() {
+        return streak;
+    }
+
+    int longestWinStreak() {
+        return longestWinStreak;
+    }
+
+    int longestLoseStreak() {
+        return longestLoseStreak;
+    }
+
+    int lastMatchId() {
+        return lastMatchId;
+    }
+
+    /** Kurze Zusammenfassung für Tooltips und die Konsole. */
+    String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(count).append(" Runden, ").append(count(RoundEngine.Outcome.WIN)).append(" Siege");
+        for (Move m : Move.VALUES) {
+            if (roundsPerMove[m.ordinal()] > 0)
+                sb.append(String.format(" · %s %.0f%%", m.displayName, winRate(m) * 100));
+        }
+        sb.append(" · Serie ").append(streak).append(" (längste ").append(longestWinStreak).append(')');
+        return sb.toString();
+    }
+
+    /** Schreibt alles bis hierher auf die Platte (sonst erledigt das das Betriebssystem). */
+    void force() {
+        header.force();
+        if (window != null)
+            window.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            try {
+                lock.release();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Zeigt Summen und die letzten Runden einer Chronik:
+     * {@code java MatchHistory [datei] [anzahl]}.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = args.length > 0 ? Path.of(args[0]) : defaultFile();
+        int last = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        try (MatchHistory history = open(file)) {
+            if (history == null) {
+                System.out.println("Chronik wird gerade vom Spiel benutzt: " + file);
+                return;
+            }
+            System.out.println(history.summary());
+            long from = Math.max(0, history.count - last);
+            if (from == history.count)
+                return;
+            MappedByteBuffer records = history.channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + from * RECORD_BYTES, (history.count - from) * RECORD_BYTES);
+            SimpleDateFormat time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            for (int i = 0; i < history.count - from; i++) {
+                int at = i * RECORD_BYTES;
+                System.out.printf("%s  Match %d  %-6s vs %-6s  %s%n", time.format(new Date(records.getLong(at))),
+                        records.getInt(at + REC_MATCH), Move.fromCode(records.get(at + REC_PLAYER)).displayName,
+                        Move.fromCode(records.get(at + REC_COMPUTER)).displayName,
+                        RoundEngine.Outcome.VALUES[records.get(at + REC_OUTCOME)]);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Exakte Gewinnwahrscheinlichkeit und erwartete Restlänge eines Matches
+ * "zuerst N Siege", ausgehend von einem beliebigen Zwischenstand.
+ *
+ * Unentschieden zählen nicht zum Ziel; sie verlängern das Match nur. Pro
+ * Ziel N werden zwei float-Tabellen der Größe N x N einmalig per dynamischer
+ * Programmierung gefüllt (vom Ende her), danach ist jede Abfrage ein
+ * Array-Zugriff. Nur auf einem Thread (dem EDT) benutzen.
+ */
+final class MatchOdds {
+    static final int MAX_TARGET = 100;
+
+    /** Zufälliger Computer: jede Waffe mit 1/3. */
+    static final MatchOdds UNIFORM = new MatchOdds(1.0 / 3, 1.0 / 3, 1.0 / 3);
+
+    /**
+     * Zufälliger Computer bei weapons Waffen: in ausgeglichenen Sätzen schlägt
+     * jede Waffe (N-1)/2 andere, also Sieg und Niederlage je (N-1)/2N, Remis 1/N.
+     */
+    static MatchOdds uniform(int weapons) {
+        if (weapons == Move.COUNT)
+            return UNIFORM;
+        double decisive = (weapons - 1) / (2.0 * weapons);
+        return new MatchOdds(decisive, decisive, 1.0 / weapons);
+    }
+
+    private final double pWin;
+    private final double pLose;
+    private final double pDraw;
+    private final double q; // Siegchance in einer entschiedenen Runde
+    private final double roundsPerDecision; // erwartete Runden bis eine entschieden ist
+
+    // [target] -> Tabelle mit Index player * target + computer
+    private final float[][] winTables = new float[MAX_TARGET + 1][];
+    private final float[][] lengthTables = new float[MAX_TARGET + 1][];
+
+    MatchOdds(double pWin, double pLose, double pDraw) {
+        if (pWin < 0 || pLose < 0 || pDraw < 0 || Math.abs(pWin + pLose + pDraw - 1.0) > 1e-9)
+            throw new IllegalArgumentException("Wahrscheinlichkeiten müssen >= 0 sein und 1 ergeben");
+        this.pWin = pWin;
+        this.pLose = pLose;
+        this.pDraw = pDraw;
+        double decisive = pWin + pLose;
+        this.q = decisive > 0 ? pWin / decisive : 0.5;
+        this.roundsPerDecision = decisive > 0 ? 1.0 / decisive : Double.POSITIVE_INFINITY;
+    }
+
+    double getWinChance() {
+        return pWin;
+    }
+
+    double getLoseChance() {
+        return pLose;
+    }
+
+    double getDrawChance() {
+        return pDraw;
+    }
+
+    /** Wahrscheinlichkeit, dass der Spieler das Match noch gewinnt. */
+    double winProbability(int playerScore, int computerScore, int target) {
+        if (playerScore >= target)
+            return 1.0;
+        if (computerScore >= target)
+            return 0.0;
+        return winTable(target)[playerScore * target + computerScore];
+    }
+
+    /** Erwartete Anzahl noch zu spielender Runden (inklusive Unentschieden). */
+    double expectedRemainingRounds(int playerScore, int computerScore, int target) {
+        if (playerScore >= target || computerScore >= target)
+            return 0.0;
+        return lengthTable(target)[playerScore * target + computerScore] * roundsPerDecision;
+    }
+
+    private float[] winTable(int target) {
+        checkTarget(target);
+        float[] table = winTables[target];
+        if (table == null) {
+            table = new float[target * target];
+            for (int p = target - 1; p >= 0; p--) {
+                for (int c = target - 1; c >= 0; c--) {
+                    double ifWin = p + 1 >= target ? 1.0 : table[(p + 1) * target + c];
+                    double ifLose = c + 1 >= target ? 0.0 : table[p * target + c + 1];
+                    table[p * target + c] = (float) (q * ifWin + (1 - q) * ifLose);
+                }
+            }
+            winTables[target] = table;
+        }
+        return table;
+    }
+
+    // erwartete Anzahl entschiedener Runden bis zum Matchende
+    private float[] lengthTable(int target) {
+        checkTarget(target);
+        float[] table = lengthTables[target];
+        if (table == null) {
+            table = new float[target * target];
+            for (int p = target - 1; p >= 0; p--) {
+                for (int c = target - 1; c >= 0; c--) {
+                    double ifWin = p + 1 >= target ? 0.0 : table[(p + 1) * target + c];
+                    double ifLose = c + 1 >= target ? 0.0 : table[p * target + c + 1];
+                    table[p * target + c] = (float) (1.0 + q * ifWin + (1 - q) * ifLose);
+                }
+            }
+            lengthTables[target] = table;
+        }
+        return table;
+    }
+
+    private static void checkTarget(int target) {
+        if (target < 1 || target > MAX_TARGET)
+            throw new IllegalArgumentException("Ziel muss zwischen 1 und " + MAX_TARGET + " liegen: " + target);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Die drei Waffen. Die Reihenfolge ist so gewählt, dass jede Waffe von ihrer
+ * Nachfolgerin geschlagen wird (Papier schlägt Stein, Schere schlägt Papier,
+ * Stein schlägt Schere).
+ */
+enum Move {
+    STEIN("stein", "Stein", "rock"),
+    PAPIER("papier", "Papier", "paper"),
+    SCHERE("schere", "Schere", "scissors");
+
+    /** Einmal kopiertes values()-Array, damit Zugriffe nichts allokieren. */
+    static final Move[] VALUES = values();
+    static final int COUNT = VALUES.length;
+
+    /** Name wie in den Button-Namen und Bilddateien (z.B. "stein"). */
+    final String id;
+    final String displayName;
+    /** Name im Raum-Protokoll des Web-Clients (web/app.js), z.B. "rock". */
+    final String wire;
+
+    Move(String id, String displayName, String wire) {
+        this.id = id;
+        this.displayName = displayName;
+        this.wire = wire;
+    }
+
+    /** Die Waffe, die diese hier schlägt. */
+    Move counter() {
+        return VALUES[(ordinal() + 1) % COUNT];
+    }
+
+    static Move fromCode(int code) {
+        return VALUES[code];
+    }
+
+    static Move fromId(String id) {
+        switch (id.toLowerCase()) {
+            case "stein":
+                return STEIN;
+            case "papier":
+                return PAPIER;
+            case "schere":
+                return SCHERE;
+            default:
+                throw new IllegalArgumentException("Unbekannte Waffe: " + id);
+        }
+    }
+
+    /** Waffe zum Protokollnamen; null, wenn unbekannt (kommt aus dem Netz). */
+    static Move fromWire(String wire) {
+        for (Move m : VALUES) {
+            if (m.wire.equals(wire))
+                return m;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,262 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Verbindung der Desktop-App zum Raum-Protokoll von web/app.js
+ * ({@code create}, {@code join}, {@code move}), gegen
+ * scripts/signaling-server.js oder den Spielserver in server/. Damit treffen
+ * sich Desktop- und Browser-Spieler im selben Raum.
+ *
+ * Der Spielserver entscheidet jede Runde selbst und schickt das Ergebnis als
+ * {@code result}; das reicht der {@link Listener} als
+ * {@link Listener#roundResult} weiter, und es gilt statt der eigenen
+ * Auswertung. Der Relay-Server leitet nur Züge weiter, dort muss der Client
+ * selbst entscheiden ({@link #serverDecides()} bleibt false).
+ *
+ * Nutzt den nicht blockierenden {@link WebSocket} des JDK: Senden liefert nur
+ * ein Future, Empfangen läuft auf Threads des HttpClient. Jedes Ereignis
+ * wird per invokeLater auf den EDT gereicht, der {@link Listener} braucht
+ * also keine Synchronisation und der EDT wartet nie auf das Netz. Weil der
+ * JDK-WebSocket nur ein ausstehendes Senden erlaubt, hängt jede Nachricht
+ * an das Future der vorigen.
+ *
+ * Die Antwortzeit wird mit WebSocket-Pings gemessen (beide Server
+ * beantworten sie ohne Protokolländerung): alle {@value #PING_INTERVAL_MS} ms
+ * ein Ping mit System.nanoTime() als Inhalt, geglättet wie die SRTT von TCP.
+ * Erzeugen und alle Methoden nur auf dem EDT.
+ */
+final class NetworkMatch {
+    static final String DEFAULT_SERVER = "ws://localhost:8080";
+    static final int PING_INTERVAL_MS = 2000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    /** Ereignisse aus dem Netz, alle auf dem EDT. */
+    interface Listener {
+        void connected();
+
+        /** Eigener Raum ist angelegt; der Code wird an den Gegner weitergegeben. */
+        void created(String room);
+
+        /** Raum beigetreten; opponentPresent, wenn schon jemand wartet. */
+        void joined(String room, boolean opponentPresent);
+
+        void opponentJoined();
+
+        void opponentMoved(Move move);
+
+        /**
+         * Verbindliches Ergebnis einer Runde vom Spielserver, aus eigener Sicht:
+         * eigener Zug, Zug des Gegners und der Spielstand danach.
+         */
+        void roundResult(RoundEngine.Outcome outcome, Move move, Move opponentMove, int wins, int losses);
+
+        void opponentLeft();
+
+        void error(String message);
+
+        /** Neue Messung: letzte Antwortzeit und geglätteter Wert in ms. */
+        void latency(double rttMillis, double smoothedMillis);
+
+        /** Verbindung weg (oder nie zustande gekommen); danach kommt nichts mehr. */
+        void disconnected(String reason);
+    }
+
+    private final Listener listener;
+    private final Timer pingTimer;
+    private final StringBuilder partial = new StringBuilder(); // nur auf dem Empfangs-Thread
+    private CompletableFuture<WebSocket> lastSend;
+    private volatile String room; // vom Empfangs-Thread gesetzt
+    private boolean closed = false;
+    private boolean serverDecides = false;
+    private double smoothedRtt = -1;
+
+    private NetworkMatch(Listener listener) {
+        this.listener = listener;
+        this.pingTimer = new Timer(PING_INTERVAL_MS, e -> ping());
+    }
+
+    /** Verbindet im Hintergrund; Erfolg oder Fehler meldet der Listener. */
+    static NetworkMatch connect(URI server, Listener listener) {
+        NetworkMatch match = new NetworkMatch(listener);
+        match.lastSend = HttpClient.newHttpClient().newWebSocketBuilder().connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(server, match.new Receiver());
+        match.lastSend.whenComplete((ws, ex) -> SwingUtilities.invokeLater(() -> {
+            if (match.closed)
+                return;
+            if (ex != null) {
+                match.finish("Server nicht erreichbar");
+            } else {
+                match.listener.connected();
+                match.ping();
+                match.pingTimer.start();
+            }
+        }));
+        return match;
+    }
+
+    String room() {
+        return room;
+    }
+
+    /** true, sobald der Server ein {@code result} geschickt hat, also kein Relay ist. */
+    boolean serverDecides() {
+        return serverDecides;
+    }
+
+    void create() {
+        send(Json.object().put("type", "create").toString());
+    }
+
+    void join(String code) {
+        send(Json.object().put("type", "join").put("room", code.trim().toUpperCase()).toString());
+    }
+
+    void move(Move move) {
+        send(Json.object().put("type", "move").put("room", room).put("move", move.wire).toString());
+    }
+
+    /** Trennt die Verbindung; der Listener hört danach nichts mehr. */
+    void close() {
+        if (closed)
+            return;
+        closed = true;
+        pingTimer.stop();
+        lastSend.thenCompose(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+    }
+
+    private void send(String message) {
+        if (closed)
+            return;
+        lastSend = lastSend.thenCompose(ws -> ws.sendText(message, true));
+        failOnError(lastSend);
+    }
+
+    private void ping() {
+        if (closed)
+            return;
+        ByteBuffer sentAt = ByteBuffer.allocate(Long.BYTES).putLong(0, System.nanoTime());
+        lastSend = lastSend.thenCompose(ws -> ws.sendPing(sentAt));
+        failOnError(lastSend);
+    }
+
+    private void failOnError(CompletableFuture<WebSocket> sent) {
+        sent.whenComplete((ws, ex) -> {
+            if (ex != null)
+                SwingUtilities.invokeLater(() -> finish("Senden fehlgeschlagen"));
+        });
+    }
+
+    // auf dem EDT
+    private void finish(String reason) {
+        if (closed)
+            return;
+        closed = true;
+        pingTimer.stop();
+        listener.disconnected(reason);
+    }
+
+    // auf dem EDT
+    private void pong(long sentAt) {
+        if (closed)
+            return;
+        double rtt = (System.nanoTime() - sentAt) / 1e6;
+        smoothedRtt = smoothedRtt < 0 ? rtt : 0.875 * smoothedRtt + 0.125 * rtt; // RFC 6298
+        listener.latency(rtt, smoothedRtt);
+    }
+
+    // auf dem EDT
+    private void dispatch(Map<String, String> msg) {
+        if (closed)
+            return;
+        String type = msg.get("type");
+        if ("created".equals(type)) {
+            listener.created(msg.get("room"));
+        } else if ("joined".equals(type)) {
+            listener.joined(msg.get("room"), msg.get("opponent") != null);
+        } else if ("peer-joined".equals(type)) {
+            listener.opponentJoined();
+        } else if ("move".equals(type)) {
+            Move move = Move.fromWire(msg.get("move"));
+            if (move != null)
+                listener.opponentMoved(move);
+        } else if ("peer-left".equals(type)) {
+            listener.opponentLeft();
+        } else if ("result".equals(type)) {
+            RoundEngine.Outcome outcome = outcome(msg.get("outcome"));
+            Move move = Move.fromWire(msg.get("move"));
+            Move opponentMove = Move.fromWire(msg.get("opponentMove"));
+            if (outcome == null || move == null || opponentMove == null)
+                return;
+            try {
+                int wins = Integer.parseInt(msg.get("wins"));
+                int losses = Integer.parseInt(msg.get("losses"));
+                serverDecides = true;
+                listener.roundResult(outcome, move, opponentMove, wins, losses);
+            } catch (NumberFormatException ex) {
+                // unvollständiges Ergebnis ignorieren
+            }
+        } else if ("error".equals(type)) {
+            listener.error(msg.get("message"));
+        }
+    }
+
+    private static RoundEngine.Outcome outcome(String status) {
+        for (RoundEngine.Outcome outcome : RoundEngine.Outcome.VALUES) {
+            if (outcome.status.equals(status))
+                return outcome;
+        }
+        return null;
+    }
+
+    /** Läuft auf Threads des HttpClient und reicht alles an den EDT weiter. */
+    private final class Receiver implements WebSocket.Listener {
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                try {
+                    Map<String, String> msg = Json.parseObject(text);
+                    String code = msg.get("room");
+                    if (code != null && ("created".equals(msg.get("type")) || "joined".equals(msg.get("type"))))
+                        room = code;
+                    SwingUtilities.invokeLater(() -> dispatch(msg));
+                } catch (IllegalArgumentException ex) {
+                    // kaputte Nachricht vom Server ignorieren
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket ws, ByteBuffer message) {
+            if (message.remaining() == Long.BYTES) {
+                long sentAt = message.getLong(message.position());
+                SwingUtilities.invokeLater(() -> pong(sentAt));
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            SwingUtilities.invokeLater(() -> finish("Server hat die Verbindung beendet"));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            SwingUtilities.invokeLater(() -> finish("Verbindung verloren"));
+        }
+    }
+}
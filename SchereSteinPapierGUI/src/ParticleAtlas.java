@@ -0,0 +1,74 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Vorgerenderte Partikel-Sprites: für jede Farbe des Partikelsystems, jede
+ * Größe bis {@link #MAX_SIZE} und {@link #ALPHA_LEVELS} Alpha-Stufen ein
+ * kleines geglättetes Oval. Beim Zeichnen reicht dann ein drawImage-Blit statt
+ * einer antialiasten fillOval-Rasterung pro Partikel.
+ *
+ * Die Zellen, die eine Feier braucht, werden mit {@link #prefill} vorab
+ * gerendert (siehe {@link ParticleSimulation#prefillAtlasInBackground}), damit
+ * die erste Feier nicht mitten in der Animation rastert; alles andere entsteht
+ * beim ersten Gebrauch. Danach werden sie nur noch wiederverwendet, ohne
+ * Sperren. Benutzen darf den Atlas immer nur ein Thread: vor der ersten
+ * Simulation der Vorrender-Thread, danach der EDT, während einer aktiven Feier
+ * ({@link ActiveCelebration}) stattdessen deren Render-Thread. Die Übergaben
+ * sichern Thread.start und Thread.join ab.
+ */
+class ParticleAtlas {
+    static final int ALPHA_LEVELS = 16;
+    static final int MAX_SIZE = 64;
+
+    private final BufferedImage[][][] cells;
+
+    ParticleAtlas(int colorCount) {
+        cells = new BufferedImage[colorCount][MAX_SIZE + 1][];
+    }
+
+    /** Alpha 0..255 auf eine Atlas-Stufe 0..ALPHA_LEVELS-1 abbilden. */
+    static int level(int alpha) {
+        return (alpha * (ALPHA_LEVELS - 1) + 127) / 255;
+    }
+
+    /** Rendert alle sichtbaren Alpha-Stufen der Farbe in den Größen minSize..maxSize vorab. */
+    void prefill(int colorIndex, int minSize, int maxSize) {
+        for (int size = Math.max(1, minSize); size <= Math.min(MAX_SIZE, maxSize); size++) {
+            for (int level = 1; level < ALPHA_LEVELS; level++)
+                sprite(colorIndex, size, level);
+        }
+    }
+
+    /** Zeichnet ein Oval der Größe size mit oberer linker Ecke (x, y). */
+    void draw(Graphics2D g, int colorIndex, int size, int alpha, int x, int y) {
+        int lvl = level(alpha);
+        if (lvl == 0)
+            return; // vollständig transparent
+        g.drawImage(sprite(colorIndex, Math.min(MAX_SIZE, size), lvl), x, y, null);
+    }
+
+    BufferedImage sprite(int colorIndex, int size, int level) {
+        BufferedImage[] levels = cells[colorIndex][size];
+        if (levels == null) {
+            levels = new BufferedImage[ALPHA_LEVELS];
+            cells[colorIndex][size] = levels;
+        }
+        BufferedImage img = levels[level];
+        if (img == null) {
+            img = render(ParticleSystem.colorRgb(colorIndex), size, level);
+            levels[level] = img;
+        }
+        return img;
+    }
+
+    private static BufferedImage render(int rgb, int size, int level) {
+        int alpha = level * 255 / (ALPHA_LEVELS - 1);
+        BufferedImage img = IconBundle.createCompatibleImage(size, size);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(new Color((alpha << 24) | rgb, true));
+        g2.fillOval(0, 0, size, size);
+        g2.dispose();
+        return img;
+    }
+}
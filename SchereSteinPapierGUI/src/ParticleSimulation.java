@@ -0,0 +1,323 @@
+import javax.swing.SwingUtilities;
+import java.awt.Rectangle;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Physik der Jubel-Feier (Konfetti und Feuerwerk), wahlweise auf einem
+ * eigenen Thread.
+ *
+ * Die Simulation arbeitet auf einem eigenen {@link ParticleSystem} und legt
+ * nach jedem Schritt einen Schnappschuss in einen Dreifachpuffer: ein Puffer
+ * wird geschrieben, einer gelesen, der dritte liegt als "neuester" dazwischen
+ * und wird per Atomic-Tausch weitergereicht. Schreiber und Leser warten so nie
+ * aufeinander, und der EDT zeichnet immer einen vollständigen Schritt.
+ *
+ * Im Hintergrundmodus (Standard bei mehr als einem Kern, umschaltbar mit
+ * {@code -Dssp.offEdtSimulation=true|false}) rechnet ein Daemon-Thread im
+ * festen Takt; sonst wird {@link #step()} von der {@link AnimationClock} auf
+ * dem EDT aufgerufen. {@link #start}, {@link #stop}, {@link #latest()},
+ * {@link #current()} und {@link #interpolation()} nur auf dem EDT aufrufen;
+ * während aktiven Renderns ({@link ActiveCelebration}) gehören
+ * {@link #latest()} und {@link #interpolation()} dem Render-Thread.
+ *
+ * Jeder Schritt meldet seine Dauer an den {@link FrameGovernor} und richtet
+ * Raketenrate und Funkenzahl nach dessen aktueller Qualitätsstufe.
+ */
+final class ParticleSimulation {
+    private static final int DIRTY = 4; // Bit neben dem Pufferindex: neuer Schnappschuss liegt bereit
+    private static final int INDEX_MASK = 3;
+    static final double ROCKET_CHANCE = 0.25; // Chance auf eine neue Rakete pro Schritt
+    static final int CONFETTI_MIN_SIZE = 20;
+    static final int CONFETTI_MAX_SIZE = 49;
+
+    // siehe prefillAtlasInBackground, nur EDT
+    private static Thread atlasPrefill;
+    private static boolean atlasPrefilled = false;
+
+    private final int stepMs;
+    private final boolean background;
+    private final Runnable onFinished;
+    private final FrameGovernor governor;
+    private final ParticleSystem live;
+    private final ParticleSystem[] buffers = new ParticleSystem[3];
+    private final Rectangle[] bounds = { new Rectangle(), new Rectangle(), new Rectangle() };
+    private final long[] publishedNanos = new long[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0; // gehört dem Simulationsthread
+    private int readIndex = 2; // gehört dem EDT
+    private volatile float renderAlpha = 1f; // vom Render-Thread gelesen, siehe ActiveCelebration
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> task;
+
+    // Zustand der laufenden Feier, gehört dem Simulationsthread
+    private int remainingTicks = 0;
+    private volatile int width = 1;
+    private volatile int height = 1;
+    private volatile boolean running = false;
+
+    /**
+     * @param stepMs     Länge eines Simulationsschritts
+     * @param background true: eigener Thread, false: Schritte über {@link #step()}
+     * @param onFinished wird auf dem EDT aufgerufen, wenn eine Feier im
+     *                   Hintergrund ausgelaufen ist oder mit {@link #stop}
+     *                   abgebrochen wurde
+     * @param governor   liefert die Effektdichte und bekommt die Schrittzeiten
+     */
+    ParticleSimulation(int stepMs, boolean background, Runnable onFinished, FrameGovernor governor) {
+        this.stepMs = stepMs;
+        this.background = background;
+        this.onFinished = onFinished;
+        this.governor = governor;
+        this.live = new ParticleSystem();
+        for (int i = 0; i < buffers.length; i++)
+            buffers[i] = new ParticleSystem(live.getRandom()); // Schnappschüsse ziehen keine Zufallszahlen
+        awaitAtlas();
+    }
+
+    /**
+     * Rastert die Sprites der Feier (rund 20 MB, auf einem Kern fast eine
+     * Sekunde) auf einem Hintergrund-Thread vor, z.B. ab der ersten Runde.
+     * Bis eine Simulation angelegt wird, gehört der Atlas diesem Thread.
+     * Einmalig; nur auf dem EDT aufrufen.
+     */
+    static void prefillAtlasInBackground() {
+        if (atlasPrefill != null || atlasPrefilled)
+            return;
+        atlasPrefill = new Thread(() -> ParticleSystem.prefillAtlas(CONFETTI_MIN_SIZE, CONFETTI_MAX_SIZE),
+                "particle-atlas");
+        atlasPrefill.setDaemon(true);
+        atlasPrefill.setPriority(Thread.MIN_PRIORITY);
+        atlasPrefill.start();
+    }
+
+    // Atlas fertig rastern, bevor die erste Feier zeichnet: auf den Hintergrund-Thread
+    // warten (join übergibt den Atlas) oder, falls keiner lief, hier rastern
+    private static void awaitAtlas() {
+        if (atlasPrefilled)
+            return;
+        Thread prefill = atlasPrefill;
+        if (prefill == null) {
+            ParticleSystem.prefillAtlas(CONFETTI_MIN_SIZE, CONFETTI_MAX_SIZE);
+        } else {
+            boolean interrupted = false;
+            while (prefill.isAlive()) {
+                try {
+                    prefill.join();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+        atlasPrefilled = true;
+    }
+
+    /** Hintergrundmodus laut {@code -Dssp.offEdtSimulation}, sonst je nach Kernzahl. */
+    static boolean backgroundByDefault() {
+        String configured = System.getProperty("ssp.offEdtSimulation");
+        if (configured != null)
+            return Boolean.parseBoolean(configured);
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    boolean isBackground() {
+        return background;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /** Panelgröße für neue Raketen; darf sich während der Feier ändern. */
+    void setBounds(int w, int h) {
+        width = Math.max(1, w);
+        height = Math.max(1, h);
+    }
+
+    /**
+     * Startet eine neue Feier über ticks Schritte; eine laufende wird ersetzt.
+     */
+    void start(int ticks, int confettiCount, int initialRockets) {
+        running = true;
+        Runnable init = () -> {
+            live.clear();
+            int w = width;
+            int h = height;
+            // mostly top area; size 20..49, life ticks +/- 20
+            live.spawnConfettiBurst(confettiCount, 0, w, 0, h * 0.6f, ticks - 20, ticks + 20, CONFETTI_MIN_SIZE,
+                    CONFETTI_MAX_SIZE + 1, 60f, 40f);
+            RandomGenerator random = live.getRandom();
+            // Immediately spawn a visible set of fireworks so the user notices rockets
+            for (int r = 0; r < initialRockets; r++)
+                live.spawnRocket(random.nextDouble() * w, h * 0.9); // start very near bottom
+            remainingTicks = ticks;
+            running = true; // ein gerade ausgelaufener Schritt kann es zurückgesetzt haben
+            publish();
+        };
+        if (!background) {
+            init.run();
+            return;
+        }
+        if (task != null)
+            task.cancel(false);
+        ScheduledExecutorService exec = executor();
+        exec.execute(init);
+        Ticker ticker = new Ticker();
+        task = exec.scheduleAtFixedRate(ticker, stepMs, stepMs, TimeUnit.MILLISECONDS);
+        ticker.future = task;
+    }
+
+    /**
+     * Bricht die Feier ab (z.B. bei Reset) und meldet danach onFinished, damit
+     * der EDT den leeren Schnappschuss übernimmt.
+     */
+    void stop() {
+        running = false;
+        if (!background) {
+            live.clear();
+            publish();
+            onFinished.run();
+            return;
+        }
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        if (executor != null) {
+            executor.execute(() -> {
+                live.clear();
+                publish();
+                SwingUtilities.invokeLater(onFinished);
+            });
+        }
+    }
+
+    /**
+     * Ein Simulationsschritt auf dem Thread, der die Simulation betreibt.
+     *
+     * @return false, sobald die Feier vorbei ist
+     */
+    boolean step() {
+        GameEvents.ParticleStep event = new GameEvents.ParticleStep();
+        event.begin();
+        long started = System.nanoTime();
+        float density = governor.density();
+        live.setDensity(density);
+        RandomGenerator random = live.getRandom();
+        // Occasionally spawn large fireworks during celebration (higher rate)
+        if (random.nextDouble() < ROCKET_CHANCE * density) {
+            double fx = random.nextDouble() * width;
+            // start rockets near the bottom so they fly up visibly
+            double fy = height * (0.85 + random.nextDouble() * 0.12);
+            live.spawnRocket(fx, fy);
+        }
+
+        // Update confetti, rockets and sparks
+        live.update();
+        governor.recordUpdate(System.nanoTime() - started);
+        if (event.shouldCommit()) {
+            event.confetti = live.getConfettiCount();
+            event.sparks = live.getSparkCount();
+            event.rockets = live.getRocketCount();
+            event.qualityLevel = governor.getQualityLevel();
+            event.commit();
+        }
+
+        if (--remainingTicks <= 0) {
+            running = false;
+            live.clear();
+            publish();
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    /** Interpolationsfaktor für den EDT-Modus, aus {@link AnimationClock.Subscriber#render}. */
+    void setRenderAlpha(float alpha) {
+        renderAlpha = alpha;
+    }
+
+    /** Holt den neuesten vollständigen Schnappschuss und macht ihn zum aktuellen. */
+    ParticleSystem latest() {
+        if ((middle.get() & DIRTY) != 0) {
+            int previous = middle.getAndSet(readIndex);
+            readIndex = previous & INDEX_MASK;
+        }
+        return buffers[readIndex];
+    }
+
+    /** Zuletzt mit {@link #latest()} geholter Schnappschuss (zum Zeichnen). */
+    ParticleSystem current() {
+        return buffers[readIndex];
+    }
+
+    /** Bereich, den {@link #current()} beim Zeichnen berührt. */
+    Rectangle currentBounds() {
+        return bounds[readIndex];
+    }
+
+    /**
+     * Interpolationsfaktor 0..1 für {@link #latest()}: im Hintergrundmodus aus
+     * der Zeit seit dem Schnappschuss, sonst der Wert der Animationsuhr.
+     */
+    float interpolation() {
+        if (!background)
+            return renderAlpha;
+        long elapsed = System.nanoTime() - publishedNanos[readIndex];
+        return (float) Math.max(0.0, Math.min(1.0, elapsed / (stepMs * 1_000_000.0)));
+    }
+
+    private void publish() {
+        buffers[writeIndex].copyFrom(live);
+        buffers[writeIndex].computeBounds(bounds[writeIndex]);
+        publishedNanos[writeIndex] = System.nanoTime();
+        int previous = middle.getAndSet(writeIndex | DIRTY);
+        writeIndex = previous & INDEX_MASK;
+    }
+
+    // Wiederholte Aufgabe einer Feier; kennt ihren eigenen Future, damit sie
+    // sich am Ende abmelden kann, ohne eine neuere Feier zu treffen
+    private final class Ticker implements Runnable {
+        volatile ScheduledFuture<?> future;
+
+        @Override
+        public void run() {
+            if (!running)
+                return;
+            boolean more;
+            try {
+                more = step();
+            } catch (RuntimeException ex) {
+                // ohne Fang würde der Executor die Wiederholung stillschweigend beenden
+                System.err.println("Partikelsimulation abgebrochen: " + ex);
+                running = false;
+                more = false;
+            }
+            if (!more) {
+                ScheduledFuture<?> f = future;
+                if (f != null)
+                    f.cancel(false);
+                SwingUtilities.invokeLater(onFinished);
+            }
+        }
+    }
+
+    private ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "particle-sim");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,428 @@
+import java.awt.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Partikelsystem für Konfetti und Feuerwerk.
+ *
+ * Alle Partikel liegen in primitiven Arrays ("structure of arrays") mit fester
+ * Kapazität. Tote Partikel werden per Swap-Remove entfernt (letzter Eintrag
+ * rückt an die freie Stelle), dadurch entstehen während einer Feier weder neue
+ * Objekte noch Array-Kopien. Gezeichnet wird über die vorgerenderten Sprites
+ * aus {@link ParticleAtlas}; die Position vor dem letzten Schritt wird
+ * mitgeführt, damit zwischen zwei Simulationsschritten interpoliert werden kann.
+ */
+class ParticleSystem {
+    static final int[] PALETTE = { 0xFF6B6B, 0x4ECDC4, 0xFFE66D, 0xFF8A65, 0xAE73DC, 0xFF1493, 0x00CED1 };
+
+    static final float GRAVITY = 0.12f; // leichte Gravitation, damit die Partikel länger schweben
+    static final float ROCKET_GRAVITY = 0.18f; // bremst den Aufstieg der Raketen
+    static final float SPARK_DRAG_X = 0.995f; // Luftwiderstand der Funken
+    static final float SPARK_DRAG_Y = 0.998f;
+
+    static final int MAX_CONFETTI = 1200;
+    static final int MAX_SPARKS = 4096;
+    static final int MAX_ROCKETS = 64;
+
+    // Pro Palettenfarbe einige leicht verschobene Varianten für die Funken
+    // (ersetzt die +/-20 Zufallsabweichung pro Funke).
+    static final int SPARK_VARIANTS = 4;
+    private static final int[] COLOR_RGB = buildColorTable();
+    static final int COLOR_COUNT = COLOR_RGB.length;
+
+    private static final ParticleAtlas ATLAS = new ParticleAtlas(COLOR_COUNT);
+
+    private final RandomGenerator random;
+    private float density = 1f; // Anteil der Funken pro Explosion, siehe FrameGovernor
+
+    // Konfetti
+    final float[] confettiX = new float[MAX_CONFETTI];
+    final float[] confettiY = new float[MAX_CONFETTI];
+    final float[] confettiPrevX = new float[MAX_CONFETTI];
+    final float[] confettiPrevY = new float[MAX_CONFETTI];
+    final float[] confettiVx = new float[MAX_CONFETTI];
+    final float[] confettiVy = new float[MAX_CONFETTI];
+    final int[] confettiLife = new int[MAX_CONFETTI];
+    final int[] confettiMaxLife = new int[MAX_CONFETTI];
+    final int[] confettiSize = new int[MAX_CONFETTI];
+    final byte[] confettiColor = new byte[MAX_CONFETTI];
+    int confettiCount = 0;
+
+    // Funken explodierter Raketen
+    final float[] sparkX = new float[MAX_SPARKS];
+    final float[] sparkY = new float[MAX_SPARKS];
+    final float[] sparkPrevX = new float[MAX_SPARKS];
+    final float[] sparkPrevY = new float[MAX_SPARKS];
+    final float[] sparkVx = new float[MAX_SPARKS];
+    final float[] sparkVy = new float[MAX_SPARKS];
+    final int[] sparkLife = new int[MAX_SPARKS];
+    final int[] sparkMaxLife = new int[MAX_SPARKS];
+    final byte[] sparkColor = new byte[MAX_SPARKS]; // Farbindex (Palette oder Funken-Variante)
+    int sparkCount = 0;
+
+    // aufsteigende Raketen
+    final float[] rocketX = new float[MAX_ROCKETS];
+    final float[] rocketY = new float[MAX_ROCKETS];
+    final float[] rocketPrevY = new float[MAX_ROCKETS];
+    final float[] rocketVy = new float[MAX_ROCKETS];
+    final byte[] rocketColor = new byte[MAX_ROCKETS];
+    int rocketCount = 0;
+
+    ParticleSystem() {
+        this(Randoms.split(Randoms.Subsystem.EFFECTS));
+    }
+
+    ParticleSystem(RandomGenerator random) {
+        this.random = random;
+    }
+
+    private static int[] buildColorTable() {
+        int[] table = new int[PALETTE.length * (1 + SPARK_VARIANTS)];
+        for (int p = 0; p < PALETTE.length; p++) {
+            table[p] = PALETTE[p];
+            int r = (PALETTE[p] >> 16) & 0xFF;
+            int g = (PALETTE[p] >> 8) & 0xFF;
+            int b = PALETTE[p] & 0xFF;
+            for (int v = 0; v < SPARK_VARIANTS; v++) {
+                // feste Abweichungen im Bereich -20..+20 je Kanal
+                int d = -20 + (40 * v) / (SPARK_VARIANTS - 1);
+                int rr = clamp(r + d);
+                int gg = clamp(g - d / 2);
+                int bb = clamp(b + (v % 2 == 0 ? d : -d));
+                table[sparkColorIndex(p, v)] = (rr << 16) | (gg << 8) | bb;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Rendert alle Atlas-Sprites vorab, die eine Feier mit Konfetti der
+     * Größen minConfettiSize..maxConfettiSize zeichnen kann: Konfetti in den
+     * Palettenfarben, Raketen (Größe 6) und Funken (Größe 2 bis 4) in allen
+     * Farben. Nur auf dem Thread aufrufen, dem der Atlas gerade gehört.
+     */
+    static void prefillAtlas(int minConfettiSize, int maxConfettiSize) {
+        for (int c = 0; c < PALETTE.length; c++) {
+            ATLAS.prefill(c, minConfettiSize, maxConfettiSize);
+            ATLAS.prefill(c, 6, 6);
+        }
+        for (int c = 0; c < COLOR_COUNT; c++)
+            ATLAS.prefill(c, 2, 4);
+    }
+
+    /** RGB-Wert (ohne Alpha) eines Farbindex. */
+    static int colorRgb(int colorIndex) {
+        return COLOR_RGB[colorIndex];
+    }
+
+    private static int clamp(int c) {
+        return Math.max(0, Math.min(255, c));
+    }
+
+    static int sparkColorIndex(int paletteIndex, int variant) {
+        return PALETTE.length + paletteIndex * SPARK_VARIANTS + variant;
+    }
+
+    /** Alpha 0..255 abhängig von der verbleibenden Lebenszeit. */
+    static int alphaFor(int life, int maxLife) {
+        double ratio = Math.max(0.0, Math.min(1.0, life / (double) maxLife));
+        return Math.min(255, Math.max(0, (int) (255 * ratio)));
+    }
+
+    int getConfettiCount() {
+        return confettiCount;
+    }
+
+    int getSparkCount() {
+        return sparkCount;
+    }
+
+    int getRocketCount() {
+        return rocketCount;
+    }
+
+    boolean isEmpty() {
+        return confettiCount == 0 && sparkCount == 0 && rocketCount == 0;
+    }
+
+    void clear() {
+        confettiCount = 0;
+        sparkCount = 0;
+        rocketCount = 0;
+    }
+
+    /** Konfetti mit eigener Lebensdauer/Größe (großer Jubel). */
+    boolean spawnConfetti(double x, double y, int maxLife, int size, double vxMultiplier, double vyBase) {
+        if (confettiCount >= MAX_CONFETTI)
+            return false;
+        int i = confettiCount++;
+        confettiX[i] = confettiPrevX[i] = (float) x;
+        confettiY[i] = confettiPrevY[i] = (float) y;
+        confettiVx[i] = (float) ((random.nextDouble() - 0.5) * vxMultiplier);
+        confettiVy[i] = (float) -(random.nextDouble() * vyBase); // leicht nach oben/neutral starten
+        confettiColor[i] = (byte) random.nextInt(PALETTE.length);
+        confettiMaxLife[i] = Math.max(10, maxLife);
+        confettiLife[i] = confettiMaxLife[i];
+        confettiSize[i] = Math.max(4, Math.min(ParticleAtlas.MAX_SIZE, size));
+        return true;
+    }
+
+    /**
+     * Viele Konfetti auf einmal in einem Rechteck verteilen (großer Jubel).
+     * Positionen, Geschwindigkeiten, Lebensdauer, Größe und Farbe werden
+     * spaltenweise mit den Bulk-Helfern aus {@link Randoms} gefüllt.
+     *
+     * @return Anzahl tatsächlich erzeugter Partikel (durch die Kapazität begrenzt)
+     */
+    int spawnConfettiBurst(int count, float minX, float maxX, float minY, float maxY, int minLife, int maxLife,
+            int minSize, int maxSize, float vxRange, float vyMax) {
+        int n = Math.max(0, Math.min(count, MAX_CONFETTI - confettiCount));
+        int off = confettiCount;
+        Randoms.fill(random, confettiX, off, n, minX, maxX);
+        Randoms.fill(random, confettiY, off, n, minY, maxY);
+        Randoms.fillVelocities(random, confettiVx, confettiVy, off, n, vxRange, vyMax);
+        Randoms.fill(random, confettiMaxLife, off, n, minLife, Math.max(minLife + 1, maxLife));
+        Randoms.fill(random, confettiSize, off, n, minSize, Math.max(minSize + 1, maxSize));
+        Randoms.fill(random, confettiColor, off, n, PALETTE.length);
+        for (int i = off, end = off + n; i < end; i++) {
+            confettiMaxLife[i] = Math.max(10, confettiMaxLife[i]);
+            confettiLife[i] = confettiMaxLife[i];
+            confettiSize[i] = Math.max(4, Math.min(ParticleAtlas.MAX_SIZE, confettiSize[i]));
+            confettiPrevX[i] = confettiX[i];
+            confettiPrevY[i] = confettiY[i];
+        }
+        confettiCount += n;
+        return n;
+    }
+
+    /** Zufallsstrom dieses Systems, z.B. für das Nachspawnen von Raketen. */
+    RandomGenerator getRandom() {
+        return random;
+    }
+
+    boolean spawnRocket(double x, double y) {
+        if (rocketCount >= MAX_ROCKETS)
+            return false;
+        int i = rocketCount++;
+        rocketX[i] = (float) x;
+        rocketY[i] = rocketPrevY[i] = (float) y;
+        rocketVy[i] = (float) -(8 + random.nextDouble() * 6);
+        rocketColor[i] = (byte) random.nextInt(PALETTE.length);
+        return true;
+    }
+
+    /**
+     * Übernimmt den Zeichenzustand (Positionen, Lebensdauer, Größe, Farbe) aus
+     * src, z.B. als Schnappschuss für einen anderen Thread. Geschwindigkeiten
+     * werden nicht kopiert; der Schnappschuss ist nur zum Zeichnen gedacht.
+     */
+    void copyFrom(ParticleSystem src) {
+        int n = src.confettiCount;
+        System.arraycopy(src.confettiX, 0, confettiX, 0, n);
+        System.arraycopy(src.confettiY, 0, confettiY, 0, n);
+        System.arraycopy(src.confettiPrevX, 0, confettiPrevX, 0, n);
+        System.arraycopy(src.confettiPrevY, 0, confettiPrevY, 0, n);
+        System.arraycopy(src.confettiLife, 0, confettiLife, 0, n);
+        System.arraycopy(src.confettiMaxLife, 0, confettiMaxLife, 0, n);
+        System.arraycopy(src.confettiSize, 0, confettiSize, 0, n);
+        System.arraycopy(src.confettiColor, 0, confettiColor, 0, n);
+        confettiCount = n;
+
+        n = src.sparkCount;
+        System.arraycopy(src.sparkX, 0, sparkX, 0, n);
+        System.arraycopy(src.sparkY, 0, sparkY, 0, n);
+        System.arraycopy(src.sparkPrevX, 0, sparkPrevX, 0, n);
+        System.arraycopy(src.sparkPrevY, 0, sparkPrevY, 0, n);
+        System.arraycopy(src.sparkLife, 0, sparkLife, 0, n);
+        System.arraycopy(src.sparkMaxLife, 0, sparkMaxLife, 0, n);
+        System.arraycopy(src.sparkColor, 0, sparkColor, 0, n);
+        sparkCount = n;
+
+        n = src.rocketCount;
+        System.arraycopy(src.rocketX, 0, rocketX, 0, n);
+        System.arraycopy(src.rocketY, 0, rocketY, 0, n);
+        System.arraycopy(src.rocketPrevY, 0, rocketPrevY, 0, n);
+        System.arraycopy(src.rocketColor, 0, rocketColor, 0, n);
+        rocketCount = n;
+    }
+
+    /**
+     * Umgebendes Rechteck aller Partikel über den letzten Schritt hinweg
+     * (vorherige und aktuelle Position samt Spritegröße), damit nur dieser
+     * Bereich neu gezeichnet werden muss. Ohne Partikel ist out leer.
+     */
+    Rectangle computeBounds(Rectangle out) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < confettiCount; i++) {
+            int size = Math.min(ParticleAtlas.MAX_SIZE, confettiSize[i]);
+            minX = Math.min(minX, Math.min(confettiPrevX[i], confettiX[i]));
+            minY = Math.min(minY, Math.min(confettiPrevY[i], confettiY[i]));
+            maxX = Math.max(maxX, Math.max(confettiPrevX[i], confettiX[i]) + size);
+            maxY = Math.max(maxY, Math.max(confettiPrevY[i], confettiY[i]) + size);
+        }
+        for (int i = 0; i < rocketCount; i++) {
+            minX = Math.min(minX, rocketX[i] - 3);
+            minY = Math.min(minY, Math.min(rocketPrevY[i], rocketY[i]) - 3);
+            maxX = Math.max(maxX, rocketX[i] + 3);
+            maxY = Math.max(maxY, Math.max(rocketPrevY[i], rocketY[i]) + 3);
+        }
+        for (int i = 0; i < sparkCount; i++) {
+            minX = Math.min(minX, Math.min(sparkPrevX[i], sparkX[i]));
+            minY = Math.min(minY, Math.min(sparkPrevY[i], sparkY[i]));
+            maxX = Math.max(maxX, Math.max(sparkPrevX[i], sparkX[i]) + 4);
+            maxY = Math.max(maxY, Math.max(sparkPrevY[i], sparkY[i]) + 4);
+        }
+        if (minX > maxX) {
+            out.setBounds(0, 0, 0, 0);
+        } else {
+            // (int)-Rundung beim Zeichnen abdecken
+            int x = (int) Math.floor(minX) - 1;
+            int y = (int) Math.floor(minY) - 1;
+            out.setBounds(x, y, (int) Math.ceil(maxX) + 1 - x, (int) Math.ceil(maxY) + 1 - y);
+        }
+        return out;
+    }
+
+    /** Anteil 0..1 der vollen Funkenzahl für künftige Explosionen. */
+    void setDensity(float density) {
+        this.density = Math.max(0f, Math.min(1f, density));
+    }
+
+    /** Ein Simulationsschritt für alle Partikel. */
+    void update() {
+        updateConfetti();
+        // Funken vor den Raketen, damit frisch explodierte Funken erst im
+        // nächsten Schritt fliegen (wie bisher)
+        updateSparks();
+        updateRockets();
+    }
+
+    private void updateConfetti() {
+        int i = 0;
+        while (i < confettiCount) {
+            confettiPrevX[i] = confettiX[i];
+            confettiPrevY[i] = confettiY[i];
+            confettiX[i] += confettiVx[i];
+            confettiY[i] += confettiVy[i];
+            confettiVy[i] += GRAVITY;
+            if (--confettiLife[i] > 0) {
+                i++;
+            } else {
+                int last = --confettiCount;
+                confettiX[i] = confettiX[last];
+                confettiY[i] = confettiY[last];
+                confettiPrevX[i] = confettiPrevX[last];
+                confettiPrevY[i] = confettiPrevY[last];
+                confettiVx[i] = confettiVx[last];
+                confettiVy[i] = confettiVy[last];
+                confettiLife[i] = confettiLife[last];
+                confettiMaxLife[i] = confettiMaxLife[last];
+                confettiSize[i] = confettiSize[last];
+                confettiColor[i] = confettiColor[last];
+            }
+        }
+    }
+
+    private void updateSparks() {
+        int i = 0;
+        while (i < sparkCount) {
+            sparkPrevX[i] = sparkX[i];
+            sparkPrevY[i] = sparkY[i];
+            sparkX[i] += sparkVx[i];
+            sparkY[i] += sparkVy[i];
+            sparkVy[i] += GRAVITY;
+            sparkVx[i] *= SPARK_DRAG_X;
+            sparkVy[i] *= SPARK_DRAG_Y;
+            if (--sparkLife[i] > 0) {
+                i++;
+            } else {
+                int last = --sparkCount;
+                sparkX[i] = sparkX[last];
+                sparkY[i] = sparkY[last];
+                sparkPrevX[i] = sparkPrevX[last];
+                sparkPrevY[i] = sparkPrevY[last];
+                sparkVx[i] = sparkVx[last];
+                sparkVy[i] = sparkVy[last];
+                sparkLife[i] = sparkLife[last];
+                sparkMaxLife[i] = sparkMaxLife[last];
+                sparkColor[i] = sparkColor[last];
+            }
+        }
+    }
+
+    private void updateRockets() {
+        int i = 0;
+        while (i < rocketCount) {
+            rocketPrevY[i] = rocketY[i];
+            rocketY[i] += rocketVy[i];
+            rocketVy[i] += ROCKET_GRAVITY;
+            if (rocketVy[i] < 0) {
+                i++;
+            } else {
+                explode(i);
+                int last = --rocketCount;
+                rocketX[i] = rocketX[last];
+                rocketY[i] = rocketY[last];
+                rocketPrevY[i] = rocketPrevY[last];
+                rocketVy[i] = rocketVy[last];
+                rocketColor[i] = rocketColor[last];
+            }
+        }
+    }
+
+    private void explode(int rocket) {
+        float x = rocketX[rocket];
+        float y = rocketY[rocket];
+        int palette = rocketColor[rocket];
+        int count = Math.max(6, (int) ((18 + random.nextInt(36)) * density));
+        double speedBase = 2.5 + random.nextDouble() * 3.5;
+        for (int n = 0; n < count && sparkCount < MAX_SPARKS; n++) {
+            int i = sparkCount++;
+            double angle = random.nextDouble() * Math.PI * 2;
+            double speed = speedBase * (0.6 + random.nextDouble() * 1.4);
+            sparkX[i] = sparkPrevX[i] = x;
+            sparkY[i] = sparkPrevY[i] = y;
+            sparkVx[i] = (float) (Math.cos(angle) * speed);
+            sparkVy[i] = (float) (Math.sin(angle) * speed - 1.0); // leicht nach oben
+            sparkMaxLife[i] = 30 + random.nextInt(60);
+            sparkLife[i] = sparkMaxLife[i];
+            sparkColor[i] = (byte) sparkColorIndex(palette, random.nextInt(SPARK_VARIANTS));
+        }
+    }
+
+    void draw(Graphics2D g) {
+        draw(g, 1.0f);
+    }
+
+    /**
+     * Zeichnet alle Partikel.
+     *
+     * @param alpha Interpolationsfaktor 0..1 zwischen vorherigem und aktuellem
+     *              Simulationsschritt
+     */
+    void draw(Graphics2D g, float alpha) {
+        for (int i = 0; i < confettiCount; i++) {
+            int x = (int) lerp(confettiPrevX[i], confettiX[i], alpha);
+            int y = (int) lerp(confettiPrevY[i], confettiY[i], alpha);
+            ATLAS.draw(g, confettiColor[i], confettiSize[i], alphaFor(confettiLife[i], confettiMaxLife[i]), x, y);
+        }
+        for (int i = 0; i < rocketCount; i++) {
+            int y = (int) lerp(rocketPrevY[i], rocketY[i], alpha);
+            ATLAS.draw(g, rocketColor[i], 6, 255, (int) rocketX[i] - 3, y - 3);
+        }
+        for (int i = 0; i < sparkCount; i++) {
+            int life = sparkLife[i];
+            int maxLife = sparkMaxLife[i];
+            int s = Math.max(2, (int) (4 * (life / (double) maxLife)));
+            int x = (int) lerp(sparkPrevX[i], sparkX[i], alpha);
+            int y = (int) lerp(sparkPrevY[i], sparkY[i], alpha);
+            ATLAS.draw(g, sparkColor[i], s, alphaFor(life, maxLife), x, y);
+        }
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zentrale Zufallsquelle für Spiel und Effekte.
+ *
+ * Alles hängt an einem Start-Seed: aus {@code --seed=N} auf der Kommandozeile
+ * oder {@code -Dssp.seed=N}, sonst zufällig. Daraus werden pro Subsystem und
+ * pro Thread eigene {@link SplittableRandom}-Ströme abgeleitet, die sich
+ * nichts teilen (keine Konkurrenz wie bei Math.random) und bei gleichem Seed
+ * dieselben Folgen liefern. Die Ströme sind nicht threadsicher: ein
+ * Subsystem-Strom gehört dem Thread, der das Subsystem betreibt (meist der
+ * EDT), andere Threads benutzen {@link #forCurrentThread()} oder
+ * {@link #stream(Subsystem, long)}.
+ */
+final class Randoms {
+    enum Subsystem {
+        GAME, // Computerzug
+        OPPONENT, // Entscheidungen der lernenden KI
+        EFFECTS, // Konfetti und Feuerwerk
+        SIMULATION // Simulationen, Turniere, Benchmarks
+    }
+
+    private static volatile long seed = initialSeed();
+    private static volatile SplittableRandom[] streams = createStreams(seed);
+    private static volatile ThreadLocal<SplittableRandom> threadStreams = createThreadStreams(seed);
+
+    private Randoms() {
+    }
+
+    private static long initialSeed() {
+        Long configured = Long.getLong("ssp.seed");
+        return configured != null ? configured : System.nanoTime() ^ mix64(System.currentTimeMillis());
+    }
+
+    /**
+     * Liest {@code --seed=N} bzw. {@code --seed N} aus den Argumenten und setzt
+     * damit alle Ströme neu auf. Vor dem Start der Oberfläche aufrufen.
+     */
+    static void configure(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = null;
+            if (args[i].startsWith("--seed="))
+                value = args[i].substring("--seed=".length());
+            else if (args[i].equals("--seed") && i + 1 < args.length)
+                value = args[i + 1];
+            if (value != null) {
+                try {
+                    setSeed(Long.parseLong(value.trim()));
+                } catch (NumberFormatException ex) {
+                    System.err.println("Ungültiger Seed: " + value);
+                }
+            }
+        }
+    }
+
+    static synchronized void setSeed(long newSeed) {
+        seed = newSeed;
+        streams = createStreams(newSeed);
+        threadStreams = createThreadStreams(newSeed);
+    }
+
+    /** Aktueller Start-Seed, um einen Lauf reproduzieren zu können. */
+    static long getSeed() {
+        return seed;
+    }
+
+    /** Strom eines Subsystems; nur vom Thread dieses Subsystems benutzen. */
+    static RandomGenerator get(Subsystem subsystem) {
+        return streams[subsystem.ordinal()];
+    }
+
+    /**
+     * Neuer unabhängiger Strom für ein Subsystem, z.B. für einen eigenen
+     * Worker-Thread. Abgeleitet vom Subsystem-Strom, also nur von dessen Thread
+     * aufrufen.
+     */
+    static RandomGenerator split(Subsystem subsystem) {
+        return streams[subsystem.ordinal()].split();
+    }
+
+    /**
+     * Deterministischer Strom für Aufgabe Nummer index eines Subsystems, egal auf
+     * welchem Thread und in welcher Reihenfolge sie läuft (z.B. Fork-Join).
+     */
+    static RandomGenerator stream(Subsystem subsystem, long index) {
+        return new SplittableRandom(mix64(seed ^ mix64((subsystem.ordinal() + 1L) << 32 ^ index)));
+    }
+
+    /** Eigener Strom des aktuellen Threads. */
+    static RandomGenerator forCurrentThread() {
+        return threadStreams.get();
+    }
+
+    /** Füllt dst[off..off+len) gleichverteilt mit Werten aus [min, max). */
+    static void fill(RandomGenerator random, float[] dst, int off, int len, float min, float max) {
+        float range = max - min;
+        for (int i = off, end = off + len; i < end; i++)
+            dst[i] = min + random.nextFloat() * range;
+    }
+
+    /** Füllt dst[off..off+len) gleichverteilt mit ganzen Zahlen aus [min, max). */
+    static void fill(RandomGenerator random, int[] dst, int off, int len, int min, int max) {
+        for (int i = off, end = off + len; i < end; i++)
+            dst[i] = random.nextInt(min, max);
+    }
+
+    /** Füllt dst[off..off+len) gleichverteilt mit Bytes aus [0, bound). */
+    static void fill(RandomGenerator random, byte[] dst, int off, int len, int bound) {
+        for (int i = off, end = off + len; i < end; i++)
+            dst[i] = (byte) random.nextInt(bound);
+    }
+
+    /**
+     * Zufällige Geschwindigkeiten für einen Ausbruch: vx symmetrisch um 0 mit
+     * Spannweite vxRange, vy aus (-vyMax, 0], also nach oben oder neutral.
+     */
+    static void fillVelocities(RandomGenerator random, float[] vx, float[] vy, int off, int len, float vxRange,
+            float vyMax) {
+        for (int i = off, end = off + len; i < end; i++) {
+            vx[i] = (random.nextFloat() - 0.5f) * vxRange;
+            vy[i] = -(random.nextFloat() * vyMax);
+        }
+    }
+
+    private static SplittableRandom[] createStreams(long rootSeed) {
+        Subsystem[] subsystems = Subsystem.values();
+        SplittableRandom[] result = new SplittableRandom[subsystems.length];
+        for (Subsystem s : subsystems)
+            result[s.ordinal()] = new SplittableRandom(mix64(rootSeed ^ mix64(s.ordinal() + 1L)));
+        return result;
+    }
+
+    private static ThreadLocal<SplittableRandom> createThreadStreams(long rootSeed) {
+        // Threads mit gleichem Namen (z.B. "ForkJoinPool-1-worker-3") bekommen bei
+        // gleichem Seed denselben Strom
+        return ThreadLocal.withInitial(
+                () -> new SplittableRandom(mix64(rootSeed ^ mix64(Thread.currentThread().getName().hashCode()))));
+    }
+
+    // Finalizer aus SplittableRandom (Stafford, Variante 13)
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Spiellogik einer einzelnen Runde, unabhängig von der Oberfläche.
+ *
+ * Das Ergebnis wird aus einer vorberechneten Tabelle gelesen; eine Runde
+ * aufzulösen erzeugt weder Objekte noch Strings. Texte für die Anzeige baut
+ * {@link #message(Outcome, Move, Move)} getrennt davon. Dieselbe Klasse wird von
+ * der GUI, dem Konsolenmodus und Simulationen benutzt.
+ */
+final class RoundEngine {
+    enum Outcome {
+        WIN("win"),
+        LOSE("lose"),
+        DRAW("draw");
+
+        static final Outcome[] VALUES = values();
+
+        /** Kurzname wie im bisherigen GameResult-Status. */
+        final String status;
+
+        Outcome(String status) {
+            this.status = status;
+        }
+    }
+
+    static final byte WIN = 0;
+    static final byte LOSE = 1;
+    static final byte DRAW = 2;
+
+    // [player * COUNT + computer] -> WIN/LOSE/DRAW aus Sicht des Spielers
+    private static final byte[] OUTCOME_TABLE = new byte[Move.COUNT * Move.COUNT];
+
+    static {
+        for (int p = 0; p < Move.COUNT; p++) {
+            for (int c = 0; c < Move.COUNT; c++) {
+                byte outcome;
+                if (p == c)
+                    outcome = DRAW;
+                else if ((p - c + Move.COUNT) % Move.COUNT == 1)
+                    outcome = WIN; // Nachfolger schlägt Vorgänger
+                else
+                    outcome = LOSE;
+                OUTCOME_TABLE[p * Move.COUNT + c] = outcome;
+            }
+        }
+    }
+
+    private RoundEngine() {
+    }
+
+    /** Ergebnis als Byte-Code (WIN/LOSE/DRAW) für zwei Waffen-Codes 0..2. */
+    static byte resolve(int playerCode, int computerCode) {
+        return OUTCOME_TABLE[playerCode * Move.COUNT + computerCode];
+    }
+
+    static Outcome resolve(Move player, Move computer) {
+        return Outcome.VALUES[OUTCOME_TABLE[player.ordinal() * Move.COUNT + computer.ordinal()]];
+    }
+
+    static Move randomMove() {
+        return randomMove(Randoms.get(Randoms.Subsystem.GAME));
+    }
+
+    static Move randomMove(RandomGenerator random) {
+        return Move.VALUES[random.nextInt(Move.COUNT)];
+    }
+
+    /** Anzeigetext, z.B. "GEWONNEN!\nDu: stein vs Computer: schere". */
+    static String message(Outcome outcome, Move player, Move computer) {
+        String head;
+        switch (outcome) {
+            case WIN:
+                head = "GEWONNEN!";
+                break;
+            case LOSE:
+                head = "VERLOREN!";
+                break;
+            default:
+                head = "Unentschieden!";
+                break;
+        }
+        return head + "\nDu: " + player.id + " vs Computer: " + computer.id;
+    }
+
+    /**
+     * Spielt rounds Runden zufällig gegen zufällig und zählt die Ergebnisse in
+     * tally[WIN], tally[LOSE], tally[DRAW].
+     */
+    static void simulate(long rounds, RandomGenerator random, long[] tally) {
+        for (long i = 0; i < rounds; i++) {
+            tally[resolve(random.nextInt(Move.COUNT), random.nextInt(Move.COUNT))]++;
+        }
+    }
+
+    /**
+     * Konsolenmodus ohne GUI: liest "stein", "papier" oder "schere" zeilenweise
+     * von der Standardeingabe. Mit "--simulate N" werden N Zufallsrunden gezählt;
+     * "--seed=S" macht beide Modi reproduzierbar.
+     */
+    public static void main(String[] args) throws java.io.IOException {
+        Randoms.configure(args);
+        if (args.length >= 2 && args[0].equals("--simulate")) {
+            long rounds = Long.parseLong(args[1]);
+            long[] tally = new long[3];
+            long start = System.nanoTime();
+            simulate(rounds, Randoms.get(Randoms.Subsystem.SIMULATION), tally);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%d Runden in %.1f ms: %d Siege, %d Niederlagen, %d Unentschieden%n", rounds,
+                    nanos / 1e6, tally[WIN], tally[LOSE], tally[DRAW]);
+            return;
+        }
+
+        java.io.BufferedReader in = new java.io.BufferedReader(new java.io.InputStreamReader(System.in));
+        System.out.println("Waehle deine Waffe (stein, papier, schere) - leere Zeile beendet.");
+        String line;
+        while ((line = in.readLine()) != null && !line.isBlank()) {
+            Move player;
+            try {
+                player = Move.fromId(line.trim());
+            } catch (IllegalArgumentException ex) {
+                System.out.println(ex.getMessage());
+                continue;
+            }
+            Move computer = randomMove();
+            System.out.println(message(resolve(player, computer), player, computer));
+        }
+    }
+}
@@ -0,0 +1,298 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ein Waffensatz mit seinen Regeln, geladen aus einer Definitionsdatei
+ * (eingebaut: {@code rules/classic.rules}, {@code rules/rpsls.rules},
+ * {@code rules/rps101.rules}).
+ *
+ * Format, zeilenweise, {@code #} leitet Kommentare ein:
+ * <pre>
+ * name = Schere Stein Papier
+ * waffe stein | Stein | ✊          (id | Anzeigename | Symbol, Symbol optional)
+ * papier bedeckt stein             (Gewinner Verb... Verlierer)
+ * zyklisch                         (übrige Paare: jede Waffe schlägt die (N-1)/2 nächsten)
+ * </pre>
+ * Jedes Paar verschiedener Waffen muss genau einmal entschieden sein. Beim
+ * Laden wird alles in eine dichte N x N-Tabelle übersetzt; eine Runde
+ * aufzulösen ist dann wie in {@link RoundEngine} ein Array-Zugriff, auch bei
+ * 101 Waffen. Unveränderlich, also von jedem Thread aus benutzbar.
+ */
+final class RuleSet {
+    /** Namen der eingebauten Sätze, Reihenfolge wie in der Auswahl. */
+    static final String[] BUILT_IN = { "classic", "rpsls", "rps101" };
+    private static final String DEFAULT_VERB = "schlägt";
+
+    /** Eine Waffe des Satzes; code ist ihr Index 0..N-1. */
+    static final class Weapon {
+        final int code;
+        final String id;
+        final String displayName;
+        final String symbol; // Emoji für Knöpfe ohne Bild, kann null sein
+
+        Weapon(int code, String id, String displayName, String symbol) {
+            this.code = code;
+            this.id = id;
+            this.displayName = displayName;
+            this.symbol = symbol;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static volatile RuleSet classic;
+
+    final String name;
+    private final Weapon[] weapons;
+    private final Map<String, Weapon> byId;
+    // [a * N + b] -> RoundEngine.WIN/LOSE/DRAW aus Sicht von a
+    private final byte[] outcomes;
+    // [Gewinner * N + Verlierer] -> Verb, z.B. "bedeckt"
+    private final String[] verbs;
+    private final boolean classicRules;
+
+    private RuleSet(String name, List<Weapon> weapons, byte[] outcomes, String[] verbs) {
+        this.name = name;
+        this.weapons = weapons.toArray(new Weapon[0]);
+        this.byId = new HashMap<>();
+        for (Weapon w : this.weapons)
+            byId.put(w.id, w);
+        this.outcomes = outcomes;
+        this.verbs = verbs;
+        this.classicRules = matchesMove();
+    }
+
+    /** Die klassischen Regeln; fehlt die Datei auf dem Klassenpfad, aus {@link Move} gebaut. */
+    static RuleSet classic() {
+        RuleSet rules = classic;
+        if (rules == null) {
+            try {
+                rules = load("classic");
+            } catch (IOException | IllegalArgumentException ex) {
+                rules = fromMove();
+            }
+            classic = rules;
+        }
+        return rules;
+    }
+
+    /**
+     * Lädt einen eingebauten Satz ({@code classic}, {@code rpsls},
+     * {@code rps101}) vom Klassenpfad oder eine Definitionsdatei.
+     *
+     * @throws IllegalArgumentException bei Fehlern in der Definition (mit Zeilennummer)
+     */
+    static RuleSet load(String nameOrPath) throws IOException {
+        InputStream resource = RuleSet.class.getResourceAsStream("/rules/" + nameOrPath + ".rules");
+        if (resource != null) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+                return parse("rules/" + nameOrPath + ".rules", in.lines().toList());
+            }
+        }
+        Path file = Path.of(nameOrPath);
+        return parse(file.toString(), Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /** Satz aus -Dssp.rules (Name oder Datei), sonst klassisch. */
+    static RuleSet fromProperties() {
+        String configured = System.getProperty("ssp.rules");
+        if (configured == null || configured.isBlank())
+            return classic();
+        try {
+            return load(configured.trim());
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Regeln " + configured + " nicht ladbar, spiele klassisch: " + ex.getMessage());
+            return classic();
+        }
+    }
+
+    static RuleSet parse(String source, List<String> lines) {
+        String name = source;
+        List<Weapon> weapons = new ArrayList<>();
+        Map<String, Weapon> ids = new HashMap<>();
+        List<String[]> rules = new ArrayList<>(); // {Gewinner, Verb, Verlierer, Zeile}
+        boolean cyclic = false;
+        for (int i = 0; i < lines.size(); i++) {
+            String where = source + ":" + (i + 1) + ": ";
+            String line = lines.get(i);
+            int hash = line.indexOf('#');
+            if (hash >= 0)
+                line = line.substring(0, hash);
+            line = line.strip();
+            if (line.isEmpty())
+                continue;
+            if (line.startsWith("name") && line.substring(4).strip().startsWith("=")) {
+                name = line.substring(line.indexOf('=') + 1).strip();
+            } else if (line.startsWith("waffe ")) {
+                if (!rules.isEmpty() || cyclic)
+                    throw new IllegalArgumentException(where + "Waffen vor den Regeln definieren");
+                String[] parts = line.substring("waffe ".length()).split("\\|");
+                String id = parts[0].strip();
+                if (id.isEmpty() || id.contains(" "))
+                    throw new IllegalArgumentException(where + "ungültige Waffen-ID '" + id + "'");
+                if (ids.containsKey(id))
+                    throw new IllegalArgumentException(where + "Waffe doppelt: " + id);
+                String displayName = parts.length > 1 && !parts[1].isBlank() ? parts[1].strip() : id;
+                String symbol = parts.length > 2 && !parts[2].isBlank() ? parts[2].strip() : null;
+                Weapon weapon = new Weapon(weapons.size(), id, displayName, symbol);
+                weapons.add(weapon);
+                ids.put(id, weapon);
+            } else if (line.equals("zyklisch")) {
+                cyclic = true;
+            } else {
+                String[] tokens = line.split("\\s+");
+                if (tokens.length < 3)
+                    throw new IllegalArgumentException(where + "erwartet 'Gewinner Verb Verlierer': " + line);
+                String verb = line.substring(tokens[0].length(), line.length() - tokens[tokens.length - 1].length())
+                        .strip();
+                rules.add(new String[] { tokens[0], verb, tokens[tokens.length - 1], where });
+            }
+        }
+
+        int n = weapons.size();
+        if (n < 3 || n % 2 == 0)
+            throw new IllegalArgumentException(source + ": ungerade Anzahl Waffen >= 3 nötig, nicht " + n);
+        byte[] outcomes = new byte[n * n];
+        String[] verbs = new String[n * n];
+        boolean[] decided = new boolean[n * n];
+        for (int a = 0; a < n; a++) {
+            outcomes[a * n + a] = RoundEngine.DRAW;
+            decided[a * n + a] = true;
+        }
+        for (String[] rule : rules) {
+            Weapon winner = ids.get(rule[0]);
+            Weapon loser = ids.get(rule[2]);
+            if (winner == null || loser == null)
+                throw new IllegalArgumentException(rule[3] + "unbekannte Waffe: "
+                        + (winner == null ? rule[0] : rule[2]));
+            int w = winner.code, l = loser.code;
+            if (decided[w * n + l])
+                throw new IllegalArgumentException(rule[3] + (w == l ? "Waffe gegen sich selbst: "
+                        : "Paar schon entschieden: ") + rule[0] + " / " + rule[2]);
+            decide(outcomes, verbs, decided, n, w, l, rule[1]);
+        }
+        if (cyclic) {
+            for (int w = 0; w < n; w++) {
+                for (int k = 1; k <= n / 2; k++) {
+                    int l = (w + k) % n;
+                    if (!decided[w * n + l])
+                        decide(outcomes, verbs, decided, n, w, l, DEFAULT_VERB);
+                }
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                if (!decided[a * n + b])
+                    throw new IllegalArgumentException(source + ": keine Regel für "
+                            + weapons.get(a).id + " / " + weapons.get(b).id);
+            }
+        }
+        return new RuleSet(name, weapons, outcomes, verbs);
+    }
+
+    private static void decide(byte[] outcomes, String[] verbs, boolean[] decided, int n, int winner, int loser,
+            String verb) {
+        outcomes[winner * n + loser] = RoundEngine.WIN;
+        outcomes[loser * n + winner] = RoundEngine.LOSE;
+        verbs[winner * n + loser] = verb;
+        decided[winner * n + loser] = true;
+        decided[loser * n + winner] = true;
+    }
+
+    // Notfall, wenn rules/classic.rules nicht auf dem Klassenpfad liegt
+    private static RuleSet fromMove() {
+        int n = Move.COUNT;
+        List<Weapon> weapons = new ArrayList<>();
+        String[] symbols = { "✊", "✋", "✌" };
+        for (Move m : Move.VALUES)
+            weapons.add(new Weapon(m.ordinal(), m.id, m.displayName, symbols[m.ordinal()]));
+        byte[] outcomes = new byte[n * n];
+        String[] verbs = new String[n * n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                outcomes[a * n + b] = RoundEngine.resolve(a, b);
+                if (outcomes[a * n + b] == RoundEngine.WIN)
+                    verbs[a * n + b] = DEFAULT_VERB;
+            }
+        }
+        return new RuleSet("Schere Stein Papier", weapons, outcomes, verbs);
+    }
+
+    // gleiche Waffen in gleicher Reihenfolge und gleiche Tabelle wie Move/RoundEngine
+    private boolean matchesMove() {
+        if (weapons.length != Move.COUNT)
+            return false;
+        for (Move m : Move.VALUES) {
+            if (!weapons[m.ordinal()].id.equals(m.id))
+                return false;
+            for (Move o : Move.VALUES) {
+                if (resolve(m.ordinal(), o.ordinal()) != RoundEngine.resolve(m.ordinal(), o.ordinal()))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * true, wenn der Satz genau Stein/Papier/Schere aus {@link Move} ist: dann
+     * gilt weapon.code == move.ordinal(), und alles, was auf Move aufbaut
+     * (Rundenchronik, lernende KI, Raum-Protokoll), lässt sich benutzen.
+     */
+    boolean isClassic() {
+        return classicRules;
+    }
+
+    int size() {
+        return weapons.length;
+    }
+
+    Weapon weapon(int code) {
+        return weapons[code];
+    }
+
+    /** Waffe zur ID oder null. */
+    Weapon byId(String id) {
+        return byId.get(id);
+    }
+
+    /** Ergebnis als Byte-Code (RoundEngine.WIN/LOSE/DRAW) aus Sicht von a. */
+    byte resolve(int a, int b) {
+        return outcomes[a * weapons.length + b];
+    }
+
+    RoundEngine.Outcome resolve(Weapon a, Weapon b) {
+        return RoundEngine.Outcome.VALUES[outcomes[a.code * weapons.length + b.code]];
+    }
+
+    Weapon randomWeapon(RandomGenerator random) {
+        return weapons[random.nextInt(weapons.length)];
+    }
+
+    /** Satz wie "Papier bedeckt Stein" für einen entschiedenen Kampf, sonst null. */
+    String describe(Weapon a, Weapon b) {
+        int n = weapons.length;
+        if (outcomes[a.code * n + b.code] == RoundEngine.WIN)
+            return a.displayName + " " + verbs[a.code * n + b.code] + " " + b.displayName;
+        if (outcomes[a.code * n + b.code] == RoundEngine.LOSE)
+            return b.displayName + " " + verbs[b.code * n + a.code] + " " + a.displayName;
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Lernender Computer-Gegner.
+ *
+ * Merkt sich in drei kleinen Zähltabellen, was der Spieler wählt: insgesamt,
+ * nach seiner letzten Waffe und nach seiner letzten Waffe zusammen mit dem
+ * letzten Ergebnis (z.B. "bleibt nach einem Sieg bei Stein"). Aus den Tabellen
+ * wird der wahrscheinlichste nächste Zug geschätzt und dessen Konter gespielt.
+ *
+ * Aktualisieren und Vorhersagen kosten konstante Zeit. Erreicht eine
+ * Tabellenzeile {@link #ROW_LIMIT}, wird sie halbiert: der Speicher bleibt
+ * fest und jüngere Züge zählen mehr als alte.
+ */
+final class SmartOpponent {
+    static final int ROW_LIMIT = 64;
+
+    private static final int MOVES = Move.COUNT;
+    private static final int OUTCOMES = RoundEngine.Outcome.VALUES.length;
+
+    // Gewichtung der Tabellen: je genauer der Kontext, desto stärker
+    private static final double WEIGHT_FREQUENCY = 1.0;
+    private static final double WEIGHT_AFTER_MOVE = 2.0;
+    private static final double WEIGHT_AFTER_OUTCOME = 3.0;
+
+    private final int[] frequency = new int[MOVES];
+    private final int[] afterMove = new int[MOVES * MOVES]; // [letzte Waffe][nächste]
+    private final int[] afterOutcome = new int[OUTCOMES * MOVES * MOVES]; // [Ergebnis][letzte Waffe][nächste]
+
+    private int lastMove = -1;
+    private int lastOutcome = -1;
+    private long rounds = 0;
+
+    /** Zug des Computers für die kommende Runde (kennt den Spielerzug nicht). */
+    Move choose() {
+        int predicted = predict();
+        if (predicted < 0)
+            return RoundEngine.randomMove();
+        return Move.fromCode(predicted).counter();
+    }
+
+    /** Wie {@link #choose()}, mit eigenem Zufallsstrom (z.B. im Turnier auf Worker-Threads). */
+    Move choose(java.util.random.RandomGenerator random) {
+        int predicted = predict(random);
+        if (predicted < 0)
+            return RoundEngine.randomMove(random);
+        return Move.fromCode(predicted).counter();
+    }
+
+    /**
+     * Wahrscheinlichster nächster Spielerzug als Code 0..2 oder -1, wenn es noch
+     * keine Daten gibt.
+     */
+    int predict() {
+        return predict(Randoms.get(Randoms.Subsystem.OPPONENT));
+    }
+
+    private int predict(java.util.random.RandomGenerator random) {
+        if (rounds == 0)
+            return -1;
+        int best = -1;
+        double bestScore = -1;
+        int ties = 0;
+        for (int m = 0; m < MOVES; m++) {
+            double score = WEIGHT_FREQUENCY * share(frequency, 0, m);
+            if (lastMove >= 0) {
+                score += WEIGHT_AFTER_MOVE * share(afterMove, lastMove * MOVES, m);
+                score += WEIGHT_AFTER_OUTCOME * share(afterOutcome, (lastOutcome * MOVES + lastMove) * MOVES, m);
+            }
+            // bei Gleichstand gleichverteilt zufällig entscheiden (Reservoir: der k-te
+            // Gleichstand gewinnt mit 1/k), sonst wäre der Gegner leicht auszurechnen
+            if (score > bestScore) {
+                bestScore = score;
+                best = m;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = m;
+            }
+        }
+        return best;
+    }
+
+    /** Zug des Spielers und Ergebnis (aus Spielersicht) einer Runde lernen. */
+    void record(Move player, RoundEngine.Outcome outcome) {
+        int m = player.ordinal();
+        increment(frequency, 0, m);
+        if (lastMove >= 0) {
+            increment(afterMove, lastMove * MOVES, m);
+            increment(afterOutcome, (lastOutcome * MOVES + lastMove) * MOVES, m);
+        }
+        lastMove = m;
+        lastOutcome = outcome.ordinal();
+        rounds++;
+    }
+
+    long getRounds() {
+        return rounds;
+    }
+
+    void reset() {
+        java.util.Arrays.fill(frequency, 0);
+        java.util.Arrays.fill(afterMove, 0);
+        java.util.Arrays.fill(afterOutcome, 0);
+        lastMove = -1;
+        lastOutcome = -1;
+        rounds = 0;
+    }
+
+    // Anteil von Zug m in der Zeile ab offset, mit Laplace-Glättung
+    private static double share(int[] table, int offset, int m) {
+        int total = 0;
+        for (int i = 0; i < MOVES; i++)
+            total += table[offset + i];
+        return (table[offset + m] + 1.0) / (total + MOVES);
+    }
+
+    private static void increment(int[] table, int offset, int m) {
+        if (++table[offset + m] >= ROW_LIMIT) {
+            for (int i = 0; i < MOVES; i++)
+                table[offset + i] >>= 1;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import javax.swing.SwingUtilities;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Misst die Zeit bis zum ersten Bild (time-to-first-frame).
+ *
+ * Gemessen wird von {@code App.main} und vom Start der JVM bis zum Ende des
+ * ersten Zeichendurchlaufs des Fensters. Das erste paintComponent des
+ * EmojiPanels meldet sich per {@link #firstPaint()}; ausgewertet wird erst im
+ * nächsten EDT-Ereignis, wenn auch Knöpfe und Labels gezeichnet sind. Das Ergebnis geht immer als
+ * JFR-Event {@code ssp.Startup} raus.
+ *
+ * {@code -Dssp.startupStats=true} gibt die Zeiten aus,
+ * {@code -Dssp.startupExit=true} beendet das Programm direkt danach. Letzteres
+ * ist der Trainingslauf für das AppCDS-Archiv (Maven-Profil fast-startup).
+ */
+final class StartupProbe {
+    private static long mainNanos;
+    private static GameEvents.Startup event;
+    private static boolean firstPaintSeen = false; // nur auf dem EDT
+
+    private StartupProbe() {
+    }
+
+    /** Erste Zeile von main. */
+    static void mainEntered() {
+        mainNanos = System.nanoTime();
+        event = new GameEvents.Startup();
+        event.begin();
+    }
+
+    /** Von jedem paintComponent des EmojiPanels; kostet nach dem ersten Mal nur eine Abfrage. */
+    static void firstPaint() {
+        if (firstPaintSeen)
+            return;
+        firstPaintSeen = true;
+        SwingUtilities.invokeLater(StartupProbe::report); // nach dem restlichen Fenster
+    }
+
+    private static void report() {
+        long sinceMainMs = (System.nanoTime() - mainNanos) / 1_000_000;
+        // erst jetzt laden: java.management gehört nicht auf den Weg zum ersten Bild
+        long sinceJvmMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        GameEvents.Startup startup = event;
+        if (startup != null) {
+            startup.end();
+            if (startup.shouldCommit()) {
+                startup.sinceJvmStartMs = sinceJvmMs;
+                startup.commit();
+            }
+        }
+        if (Boolean.getBoolean("ssp.startupStats")) {
+            System.out.println("Erstes Bild nach " + sinceMainMs + " ms ab main"
+                    + ", " + sinceJvmMs + " ms ab JVM-Start");
+        }
+        if (Boolean.getBoolean("ssp.startupExit"))
+            System.exit(0); // Trainingslauf: Archiv wird beim Beenden geschrieben
+    }
+}
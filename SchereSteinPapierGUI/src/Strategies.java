@@ -0,0 +1,292 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Verzeichnis der Computerspieler für {@link Tournament}: Name -> Fabrik,
+ * in Registrierungsreihenfolge. Eigene Strategien vor dem Turnier mit
+ * {@link #register(String, Supplier)} anmelden.
+ *
+ * Die eingebauten reichen vom reinen Zufall über feste Muster bis zu
+ * lernenden Gegnern ({@link SmartOpponent}, Markov-Kette, Meta-Strategie),
+ * damit die Rangliste zeigt, wer wen ausnutzt.
+ */
+final class Strategies {
+    private static final Map<String, Supplier<Strategy>> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        register("zufall", () -> RoundEngine::randomMove);
+        register("immer-stein", () -> random -> Move.STEIN);
+        register("immer-papier", () -> random -> Move.PAPIER);
+        register("immer-schere", () -> random -> Move.SCHERE);
+        register("stein-lastig", () -> random -> {
+            int r = random.nextInt(4); // Stein 50 %, Papier und Schere je 25 %
+            return r < 2 ? Move.STEIN : r == 2 ? Move.PAPIER : Move.SCHERE;
+        });
+        register("reihum", () -> new Cycle(1));
+        register("reihum-rückwärts", () -> new Cycle(2));
+        register("muster", Pattern::new);
+        register("nie-zweimal", NeverRepeat::new);
+        register("nachmachen", () -> new AfterOpponent(0));
+        register("kontern", () -> new AfterOpponent(1));
+        register("doppelt-kontern", () -> new AfterOpponent(2));
+        register("eigenen-kontern", CounterOwn::new);
+        register("sieger-bleibt", () -> new WinStay(true));
+        register("sieger-wechselt", () -> new WinStay(false));
+        register("verlierer-übernimmt", CopyWinner::new);
+        register("häufigkeit", Frequency::new);
+        register("markov", Markov::new);
+        register("schlau", Smart::new);
+        register("meta", Meta::new);
+    }
+
+    private Strategies() {
+    }
+
+    /** Meldet eine Strategie an; Namen sind eindeutig. Nicht während eines Turniers aufrufen. */
+    static synchronized void register(String name, Supplier<Strategy> factory) {
+        if (REGISTRY.putIfAbsent(name, factory) != null)
+            throw new IllegalArgumentException("Strategie gibt es schon: " + name);
+    }
+
+    /** Alle angemeldeten Strategien in Registrierungsreihenfolge. */
+    static synchronized Map<String, Supplier<Strategy>> all() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(REGISTRY));
+    }
+
+    // Die Waffe step Schritte weiter im Kreis (1 = Konter)
+    private static Move shift(Move move, int step) {
+        return Move.VALUES[(move.ordinal() + step) % Move.COUNT];
+    }
+
+    /** Geht die Waffen der Reihe nach durch, step 1 vorwärts, 2 rückwärts. */
+    private static final class Cycle implements Strategy {
+        private final int step;
+        private Move next = null;
+
+        Cycle(int step) {
+            this.step = step;
+        }
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            next = next == null ? RoundEngine.randomMove(random) : shift(next, step);
+            return next;
+        }
+    }
+
+    /** Feste Folge, die erst nach fünf Zügen wiederkehrt. */
+    private static final class Pattern implements Strategy {
+        private static final Move[] SEQUENCE = { Move.STEIN, Move.STEIN, Move.PAPIER, Move.SCHERE, Move.PAPIER };
+        private int index = 0;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            Move move = SEQUENCE[index];
+            index = (index + 1) % SEQUENCE.length;
+            return move;
+        }
+    }
+
+    /** Zufällig, aber nie zweimal hintereinander dieselbe Waffe. */
+    private static final class NeverRepeat implements Strategy {
+        private Move last = null;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            last = last == null ? RoundEngine.randomMove(random) : shift(last, 1 + random.nextInt(Move.COUNT - 1));
+            return last;
+        }
+    }
+
+    /** Letzter Gegnerzug, step Schritte weiter: 0 nachmachen, 1 kontern, 2 dessen Konter kontern. */
+    private static final class AfterOpponent implements Strategy {
+        private final int step;
+        private Move opponentLast = null;
+
+        AfterOpponent(int step) {
+            this.step = step;
+        }
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            return opponentLast == null ? RoundEngine.randomMove(random) : shift(opponentLast, step);
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            opponentLast = opponent;
+        }
+    }
+
+    /** Rechnet damit, dass der Gegner den eigenen letzten Zug kontert, und schlägt diesen Konter. */
+    private static final class CounterOwn implements Strategy {
+        private Move ownLast = null;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            return ownLast == null ? RoundEngine.randomMove(random) : shift(ownLast, 2);
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            ownLast = own;
+        }
+    }
+
+    /**
+     * winStay: nach einem Sieg dabei bleiben, sonst zufällig wechseln
+     * ("win-stay, lose-shift"); umgekehrt: nach einem Sieg wechseln.
+     */
+    private static final class WinStay implements Strategy {
+        private final boolean winStay;
+        private Move last = null;
+        private RoundEngine.Outcome lastOutcome = null;
+
+        WinStay(boolean winStay) {
+            this.winStay = winStay;
+        }
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            if (last == null)
+                return RoundEngine.randomMove(random);
+            boolean stay = (lastOutcome == RoundEngine.Outcome.WIN) == winStay;
+            return stay ? last : shift(last, 1 + random.nextInt(Move.COUNT - 1));
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            last = own;
+            lastOutcome = outcome;
+        }
+    }
+
+    /** Nach einer Niederlage die Waffe des Siegers übernehmen, sonst dabei bleiben. */
+    private static final class CopyWinner implements Strategy {
+        private Move next = null;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            if (next == null)
+                next = RoundEngine.randomMove(random);
+            return next;
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            next = outcome == RoundEngine.Outcome.LOSE ? opponent : own;
+        }
+    }
+
+    /** Kontert die bisher häufigste Waffe des Gegners. */
+    private static final class Frequency implements Strategy {
+        private final int[] counts = new int[Move.COUNT];
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            int best = random.nextInt(Move.COUNT); // Gleichstand: zufälliger Start
+            for (int i = 1; i < Move.COUNT; i++) {
+                int m = (best + i) % Move.COUNT;
+                if (counts[m] > counts[best])
+                    best = m;
+            }
+            return Move.VALUES[best].counter();
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            counts[opponent.ordinal()]++;
+        }
+    }
+
+    /** Markov-Kette erster Ordnung: was spielt der Gegner nach seinem letzten Zug? */
+    private static final class Markov implements Strategy {
+        private final int[] transitions = new int[Move.COUNT * Move.COUNT]; // [letzter][nächster]
+        private int last = -1;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            if (last < 0)
+                return RoundEngine.randomMove(random);
+            int row = last * Move.COUNT;
+            int best = random.nextInt(Move.COUNT);
+            for (int i = 1; i < Move.COUNT; i++) {
+                int m = (best + i) % Move.COUNT;
+                if (transitions[row + m] > transitions[row + best])
+                    best = m;
+            }
+            return Move.VALUES[best].counter();
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            if (last >= 0)
+                transitions[last * Move.COUNT + opponent.ordinal()]++;
+            last = opponent.ordinal();
+        }
+    }
+
+    /** Die lernende KI aus dem Spiel; sie lernt die Züge des Gegners. */
+    private static final class Smart implements Strategy {
+        private final SmartOpponent opponent = new SmartOpponent();
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            return opponent.choose(random);
+        }
+
+        @Override
+        public void record(Move own, Move theirs, RoundEngine.Outcome outcome) {
+            opponent.record(theirs, RoundEngine.resolve(theirs, own)); // SmartOpponent zählt aus Gegnersicht
+        }
+    }
+
+    /**
+     * Meta-Strategie: drei Vorhersagen für den Gegnerzug (letzter Zug,
+     * häufigster Zug, Markov) und je drei Verschiebungen davon, falls der
+     * Gegner seinerseits vorhersagt. Gespielt wird die Variante, die in den
+     * letzten Runden am besten abgeschnitten hätte (exponentiell vergessend).
+     */
+    private static final class Meta implements Strategy {
+        private static final double DECAY = 0.9;
+        private final Frequency frequency = new Frequency();
+        private final Markov markov = new Markov();
+        private final double[] scores = new double[3 * Move.COUNT]; // [Vorhersage][Verschiebung]
+        private final Move[] proposals = new Move[3 * Move.COUNT];
+        private Move opponentLast = null;
+
+        @Override
+        public Move choose(RandomGenerator random) {
+            if (opponentLast == null)
+                return RoundEngine.randomMove(random);
+            Move[] predictions = { opponentLast.counter(), frequency.choose(random), markov.choose(random) };
+            int best = 0;
+            for (int p = 0; p < predictions.length; p++) {
+                for (int s = 0; s < Move.COUNT; s++) {
+                    int i = p * Move.COUNT + s;
+                    proposals[i] = shift(predictions[p], s);
+                    if (scores[i] > scores[best])
+                        best = i;
+                }
+            }
+            return proposals[best];
+        }
+
+        @Override
+        public void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+            if (opponentLast != null) {
+                for (int i = 0; i < scores.length; i++) {
+                    byte result = RoundEngine.resolve(proposals[i].ordinal(), opponent.ordinal());
+                    double points = result == RoundEngine.WIN ? 1 : result == RoundEngine.LOSE ? -1 : 0;
+                    scores[i] = scores[i] * DECAY + points;
+                }
+            }
+            frequency.record(own, opponent, outcome);
+            markov.record(own, opponent, outcome);
+            opponentLast = opponent;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Ein Computerspieler, austauschbar wie der Computerzug in {@code App.spiele}:
+ * erst legt er sich fest, ohne den Gegnerzug zu kennen, danach erfährt er,
+ * wie die Runde ausging.
+ *
+ * Eine Instanz spielt genau ein Match und gehört dem Thread, der es spielt;
+ * für jedes Match wird über die Fabrik in {@link Strategies} eine neue
+ * erzeugt. Zufall nur aus dem übergebenen Strom, dann sind Turniere bei
+ * gleichem Seed reproduzierbar.
+ */
+interface Strategy {
+    /** Zug für die kommende Runde. */
+    Move choose(RandomGenerator random);
+
+    /** Ausgang der Runde; outcome aus eigener Sicht. */
+    default void record(Move own, Move opponent, RoundEngine.Outcome outcome) {
+    }
+}
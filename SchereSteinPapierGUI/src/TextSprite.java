@@ -0,0 +1,86 @@
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Fester Text, einmal vorgerendert und danach nur noch als Bild gezeichnet.
+ *
+ * Messen (FontMetrics) und Setzen eines Strings legen bei jedem Aufruf neue
+ * Objekte an; für die immer gleichen Ergebnis-Texte im EmojiPanel lohnt sich
+ * das nicht. Das Bild wird in der Auflösung des Bildschirms gerendert (HiDPI)
+ * und nur neu erzeugt, wenn das Panel auf einen anderen Bildschirm wandert.
+ * Nur auf dem EDT benutzen.
+ */
+final class TextSprite {
+    // wie FontMetrics.stringWidth eines Graphics2D mit Antialiasing
+    private static final FontRenderContext MEASURE = new FontRenderContext(null, true, false);
+
+    private final String text;
+    private final Font font;
+    private final Color color;
+    private final int width;
+    private final int height;
+    private final int ascent;
+
+    private GraphicsConfiguration config;
+    private BufferedImage image;
+
+    TextSprite(String text, Font font, Color color) {
+        this.text = text;
+        this.font = font;
+        this.color = color;
+        Rectangle2D bounds = font.getStringBounds(text, MEASURE);
+        LineMetrics metrics = font.getLineMetrics(text, MEASURE);
+        this.width = (int) Math.ceil(bounds.getWidth());
+        this.ascent = (int) Math.ceil(metrics.getAscent());
+        this.height = ascent + (int) Math.ceil(metrics.getDescent());
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /** Zeichnet den Text mit Grundlinie bei baseline, links bei x. */
+    void draw(Graphics2D g, int x, int baseline) {
+        prepare(g);
+        int y = baseline - ascent;
+        if (image.getWidth() == width && image.getHeight() == height)
+            g.drawImage(image, x, y, null);
+        else
+            g.drawImage(image, x, y, x + width, y + height, 0, 0, image.getWidth(), image.getHeight(), null);
+    }
+
+    /** Zeichnet den Text horizontal zentriert um centerX. */
+    void drawCentered(Graphics2D g, int centerX, int baseline) {
+        draw(g, centerX - width / 2, baseline);
+    }
+
+    /** Zeichnet den Text mittig in das Rechteck (x, y, w, h). */
+    void drawInBox(Graphics2D g, int x, int y, int w, int h) {
+        draw(g, x + (w - width) / 2, y + (h - height) / 2 + ascent);
+    }
+
+    private void prepare(Graphics2D g) {
+        GraphicsConfiguration gc = g.getDeviceConfiguration();
+        if (image != null && gc == config)
+            return;
+        config = gc;
+        double scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+        BufferedImage img = new BufferedImage(Math.max(1, (int) Math.ceil(width * scale)),
+                Math.max(1, (int) Math.ceil(height * scale)), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D ig = img.createGraphics();
+        try {
+            ig.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            ig.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            ig.scale(scale, scale);
+            ig.setFont(font);
+            ig.setColor(color);
+            ig.drawString(text, 0, ascent);
+        } finally {
+            ig.dispose();
+        }
+        image = img;
+    }
+}
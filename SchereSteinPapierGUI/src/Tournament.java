@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Jeder gegen jeden: alle {@link Strategies} spielen paarweise viele Matches
+ * "zuerst N Siege" (N wie im Spinner "Siege bis zum Gewinn", 1 bis 100).
+ *
+ * Die Arbeit wird in Blöcke von {@value #MATCHES_PER_TASK} Matches einer
+ * Paarung zerlegt und per Fork-Join auf alle Kerne verteilt. Jeder Block hat
+ * seinen eigenen Zufallsstrom ({@link Randoms#stream}) und eigene
+ * Ergebniszellen: keine Sperren, und bei gleichem Seed kommt unabhängig von
+ * der Thread-Verteilung dieselbe Tabelle heraus. Ein Match, das nach
+ * {@value #MAX_ROUNDS} Runden nicht entschieden ist (zwei starre Muster, die
+ * sich ewig neutralisieren), zählt als Remis.
+ *
+ * Die Rangliste sortiert nach Punktquote (Sieg 1, Remis 1/2) mit
+ * 95-%-Konfidenzintervall nach Wilson. Start:
+ * {@code java Tournament [--matches=1000] [--wins=3] [--seed=N]}
+ * (matches = Matches pro Paarung).
+ */
+final class Tournament {
+    static final int MAX_ROUNDS = 1000;
+    private static final int MATCHES_PER_TASK = 50;
+    private static final double Z_95 = 1.959964;
+
+    private final String[] names;
+    private final List<Supplier<Strategy>> factories;
+    private final int matchesPerPairing;
+    private final int targetWins;
+
+    // Paarungen a < b, Index wie in pairA/pairB
+    private final int[] pairA;
+    private final int[] pairB;
+    // Ergebnis je Block: Siege A, Siege B, Remis, gespielte Runden
+    private final long[][] blockResults;
+    private final int blocksPerPairing;
+
+    Tournament(Map<String, Supplier<Strategy>> strategies, int matchesPerPairing, int targetWins) {
+        if (strategies.size() < 2)
+            throw new IllegalArgumentException("Mindestens zwei Strategien nötig");
+        if (matchesPerPairing < 1 || targetWins < 1 || targetWins > MatchOdds.MAX_TARGET)
+            throw new IllegalArgumentException("Matches >= 1 und Siege 1.." + MatchOdds.MAX_TARGET);
+        this.names = strategies.keySet().toArray(new String[0]);
+        this.factories = new ArrayList<>(strategies.values());
+        this.matchesPerPairing = matchesPerPairing;
+        this.targetWins = targetWins;
+        int n = names.length;
+        int pairings = n * (n - 1) / 2;
+        pairA = new int[pairings];
+        pairB = new int[pairings];
+        for (int a = 0, p = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++, p++) {
+                pairA[p] = a;
+                pairB[p] = b;
+            }
+        }
+        blocksPerPairing = (matchesPerPairing + MATCHES_PER_TASK - 1) / MATCHES_PER_TASK;
+        blockResults = new long[pairings * blocksPerPairing][];
+    }
+
+    /** Spielt alle Blöcke im Pool und liefert die Rangliste, Beste zuerst. */
+    List<Standing> run(ForkJoinPool pool) {
+        pool.invoke(new Blocks(0, blockResults.length));
+
+        Standing[] standings = new Standing[names.length];
+        for (int i = 0; i < names.length; i++)
+            standings[i] = new Standing(names[i]);
+        for (int block = 0; block < blockResults.length; block++) {
+            int p = block / blocksPerPairing;
+            long[] r = blockResults[block];
+            Standing a = standings[pairA[p]];
+            Standing b = standings[pairB[p]];
+            a.add(r[0], r[1], r[2], r[3]);
+            b.add(r[1], r[0], r[2], r[3]);
+        }
+        List<Standing> ranking = new ArrayList<>(Arrays.asList(standings));
+        ranking.sort((x, y) -> Double.compare(y.score(), x.score()));
+        return ranking;
+    }
+
+    long rounds() {
+        long total = 0;
+        for (long[] r : blockResults)
+            total += r[3];
+        return total;
+    }
+
+    // Block Nummer block: bis zu MATCHES_PER_TASK Matches einer Paarung
+    private long[] playBlock(int block) {
+        int p = block / blocksPerPairing;
+        int first = (block % blocksPerPairing) * MATCHES_PER_TASK;
+        int count = Math.min(MATCHES_PER_TASK, matchesPerPairing - first);
+        RandomGenerator random = Randoms.stream(Randoms.Subsystem.SIMULATION, block);
+        Supplier<Strategy> factoryA = factories.get(pairA[p]);
+        Supplier<Strategy> factoryB = factories.get(pairB[p]);
+        long winsA = 0, winsB = 0, draws = 0, rounds = 0;
+        for (int m = 0; m < count; m++) {
+            Strategy a = factoryA.get();
+            Strategy b = factoryB.get();
+            int scoreA = 0, scoreB = 0, round = 0;
+            while (scoreA < targetWins && scoreB < targetWins && round < MAX_ROUNDS) {
+                Move moveA = a.choose(random);
+                Move moveB = b.choose(random);
+                byte outcome = RoundEngine.resolve(moveA.ordinal(), moveB.ordinal());
+                if (outcome == RoundEngine.WIN)
+                    scoreA++;
+                else if (outcome == RoundEngine.LOSE)
+                    scoreB++;
+                a.record(moveA, moveB, RoundEngine.Outcome.VALUES[outcome]);
+                b.record(moveB, moveA, RoundEngine.Outcome.VALUES[RoundEngine.resolve(moveB.ordinal(),
+                        moveA.ordinal())]);
+                round++;
+            }
+            rounds += round;
+            if (scoreA >= targetWins)
+                winsA++;
+            else if (scoreB >= targetWins)
+                winsB++;
+            else
+                draws++;
+        }
+        return new long[] { winsA, winsB, draws, rounds };
+    }
+
+    /** Teilt den Bereich [from, to) der Blöcke, bis je ein Block übrig ist. */
+    private final class Blocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Blocks(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                blockResults[from] = playBlock(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Blocks(from, mid), new Blocks(mid, to));
+        }
+    }
+
+    /** Bilanz einer Strategie über alle Paarungen. */
+    static final class Standing {
+        final String name;
+        long wins;
+        long losses;
+        long draws;
+        long rounds;
+
+        Standing(String name) {
+            this.name = name;
+        }
+
+        void add(long wins, long losses, long draws, long rounds) {
+            this.wins += wins;
+            this.losses += losses;
+            this.draws += draws;
+            this.rounds += rounds;
+        }
+
+        long matches() {
+            return wins + losses + draws;
+        }
+
+        /** Punktquote: Sieg 1, Remis 1/2. */
+        double score() {
+            long n = matches();
+            return n == 0 ? 0 : (wins + 0.5 * draws) / n;
+        }
+
+        /** 95-%-Wilson-Intervall der Punktquote als {untere, obere} Grenze. */
+        double[] confidence() {
+            long n = matches();
+            if (n == 0)
+                return new double[] { 0, 1 };
+            double p = score();
+            double z2 = Z_95 * Z_95;
+            double denominator = 1 + z2 / n;
+            double center = (p + z2 / (2.0 * n)) / denominator;
+            double half = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denominator;
+            return new double[] { Math.max(0, center - half), Math.min(1, center + half) };
+        }
+    }
+
+    public static void main(String[] args) {
+        Randoms.configure(args);
+        int matches = 1000;
+        int wins = 3;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--matches="))
+                matches = Integer.parseInt(arg.substring("--matches=".length()));
+            else if (arg.startsWith("--wins="))
+                wins = Integer.parseInt(arg.substring("--wins=".length()));
+            else if (arg.equals("--seed"))
+                i++; // Wert hat Randoms.configure schon gelesen
+            else if (!arg.startsWith("--seed="))
+                throw new IllegalArgumentException("Unbekannte Option: " + arg);
+        }
+
+        Map<String, Supplier<Strategy>> strategies = Strategies.all();
+        Tournament tournament = new Tournament(strategies, matches, wins);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        List<Standing> ranking = tournament.run(pool);
+        long nanos = System.nanoTime() - start;
+
+        int pairings = strategies.size() * (strategies.size() - 1) / 2;
+        System.out.printf("%d Strategien, %d Paarungen x %d Matches bis %d Siege, Seed %d%n", strategies.size(),
+                pairings, matches, wins, Randoms.getSeed());
+        System.out.printf("%-4s %-22s %8s %8s %8s %8s  %s%n", "Rang", "Strategie", "Siege", "Nieder.", "Remis",
+                "Quote", "95%-KI");
+        int rank = 1;
+        for (Standing s : ranking) {
+            double[] ci = s.confidence();
+            System.out.printf("%-4d %-22s %8d %8d %8d %7.1f%%  %.1f-%.1f%%%n", rank++, s.name, s.wins, s.losses,
+                    s.draws, s.score() * 100, ci[0] * 100, ci[1] * 100);
+        }
+        System.out.printf("%d Runden in %.0f ms auf %d Threads (%.1f Mio. Runden/s)%n", tournament.rounds(),
+                nanos / 1e6, pool.getParallelism(), tournament.rounds() / (nanos / 1e3));
+    }
+}
@@ -22,6 +22,7 @@
     let playerId = null
     let opponent = null
     let lastMoves = {}
+    let serverDecides = false // true once the server (server/) has sent a result; the relay never does
 
     function show(screen) { start.classList.add('hidden'); comp.classList.add('hidden'); mp.classList.add('hidden'); screen.classList.remove('hidden') }
 
@@ -73,7 +74,7 @@
         ws.addEventListener('close', () => { mpStatus.textContent = 'Disconnected from server.'; mpPlayArea.classList.add('hidden') })
     }
 
-    function disconnectWS() { if (ws) { try { ws.close() } catch (e) { } ws = null; room = null; playerId = null; opponent = null; lastMoves = {}; mpStatus.textContent = '' } }
+    function disconnectWS() { if (ws) { try { ws.close() } catch (e) { } ws = null; room = null; playerId = null; opponent = null; lastMoves = {}; serverDecides = false; mpStatus.textContent = '' } }
 
     function sendWS(obj) { if (!ws) { mpStatus.textContent = 'Not connected to server'; return } ws.send(JSON.stringify(obj)) }
 
@@ -87,6 +88,16 @@
         } else if (m.type === 'move') {
             lastMoves[m.player] = m.move
             checkRound()
+        } else if (m.type === 'result') {
+            // authoritative server (server/): its decision replaces the local one
+            serverDecides = true
+            const text = m.outcome === 'draw' ? `Both chose ${m.move} — Draw.`
+                : m.outcome === 'win' ? `You win: ${m.move} beats ${m.opponentMove}`
+                    : `${opponent || 'Opponent'} wins: ${m.opponentMove} beats ${m.move}`
+            resultEl.textContent = `${text} (${m.wins}:${m.losses})`
+            lastMoves = {}
+        } else if (m.type === 'peer-left') {
+            opponent = null; lastMoves = {}; mpStatus.textContent = 'Opponent left.'; opponentId.textContent = 'Waiting...'
         } else if (m.type === 'error') {
             mpStatus.textContent = 'Error: ' + (m.message || '')
         }
@@ -103,7 +114,7 @@
 
     function checkRound() {
         const players = Object.keys(lastMoves)
-        if (!room) return
+        if (!room || serverDecides) return // the result message decides
         if (players.length >= 2) {
             // determine players
             const [p1, p2] = players